@@ -1,41 +1,101 @@
 package com.hyper.invoicebackend.client;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hyper.invoicebackend.dto.BookingResponse;
 import com.hyper.invoicebackend.dto.InvoiceReceiveRequest;
+import com.hyper.invoicebackend.exception.DependencyUnavailableException;
 import com.hyper.invoicebackend.exception.ResourceNotFoundException;
+import com.hyper.invoicebackend.profiling.BookingApiEvent;
+import com.hyper.invoicebackend.resilience.DependencyGuard;
+import com.hyper.invoicebackend.resilience.DependencyGuards;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 @Slf4j
 @Component
 public class BookingApiClient {
 
     private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+    private final String searchPath;
+    private final String batchPath;
+    private final DependencyGuard guard;
+    private final BookingFetchCoalescer coalescer;
 
     public BookingApiClient(
             RestClient.Builder builder,
-            @Value("${booking.api.base-url:https://hyper-render-prod.onrender.com}") String baseUrl) {
+            ObjectMapper objectMapper,
+            DependencyGuards dependencyGuards,
+            MeterRegistry meterRegistry,
+            @Value("${booking.api.base-url:https://hyper-render-prod.onrender.com}") String baseUrl,
+            @Value("${booking.api.search-path:/services/bookings}") String searchPath,
+            @Value("${booking.api.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${booking.api.read-timeout:20s}") Duration readTimeout,
+            @Value("${booking.api.batch-path:}") String batchPath,
+            @Value("${booking.api.coalescing.window:10ms}") Duration coalescingWindow,
+            @Value("${booking.api.coalescing.max-batch-size:50}") int maxBatchSize,
+            @Value("${booking.api.coalescing.max-concurrent-fetches:4}") int maxConcurrentFetches,
+            @Value("${booking.api.coalescing.max-queued-fetches:16}") int maxQueuedFetches) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
         this.restClient = builder
                 .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
                 .build();
-        log.info("[BookingApiClient] Initialized with baseUrl: {}", baseUrl);
+        this.objectMapper = objectMapper;
+        this.searchPath = searchPath;
+        this.batchPath = batchPath;
+        this.guard = dependencyGuards.bookingApi();
+        // A lookup may wait for a full queue ahead of it; beyond this the caller is better off failing fast
+        Duration waitTimeout = connectTimeout.plus(readTimeout).plus(coalescingWindow);
+        this.coalescer = new BookingFetchCoalescer(guard.getName(),
+                id -> guard.call(() -> fetchBooking(id)),
+                batchPath.isBlank() ? null : ids -> guard.call(() -> fetchBookings(ids)),
+                coalescingWindow, maxBatchSize, maxConcurrentFetches, maxQueuedFetches, waitTimeout, meterRegistry);
+        log.info("[BookingApiClient] Initialized with baseUrl: {}, searchPath: {}, connectTimeout: {}, readTimeout: {}",
+                baseUrl, searchPath, connectTimeout, readTimeout);
+        log.info("[BookingApiClient] Fetch coalescing | window: {}, maxBatchSize: {}, maxConcurrentFetches: {}, maxQueuedFetches: {}, waitTimeout: {}, batchPath: {}",
+                coalescingWindow, maxBatchSize, maxConcurrentFetches, maxQueuedFetches, waitTimeout,
+                batchPath.isBlank() ? "(none, fan-out)" : batchPath);
     }
 
     /**
      * Fetches booking details from the external Hyper booking service.
+     * Concurrent calls for the same ID share one upstream request, and distinct IDs arriving
+     * within the coalescing window are grouped (see {@link BookingFetchCoalescer}).
      *
      * @param bookingId the booking ID
      * @return BookingResponse with full booking + user + amount data
      * @throws ResourceNotFoundException if the booking is not found (404)
+     * @throws DependencyUnavailableException if the booking API circuit is open or its bulkhead is full
      */
     public BookingResponse getBooking(Long bookingId) {
+        return coalescer.get(bookingId);
+    }
+
+    private BookingResponse fetchBooking(Long bookingId) {
         log.info("[BookingApiClient] --> GET /services/booking/{} | Calling external booking API...", bookingId);
         long start = System.currentTimeMillis();
-        try {
+        try (BookingApiEvent event = new BookingApiEvent(BookingApiEvent.GET_BOOKING, bookingId)) {
             BookingResponse response = restClient.get()
                     .uri("/services/booking/{bookingId}", bookingId)
                     .retrieve()
@@ -59,6 +119,8 @@ public class BookingApiClient {
                         bookingId, elapsed);
             }
 
+            event.setBookingCount(response != null ? 1 : 0);
+            event.succeeded();
             return response;
 
         } catch (HttpClientErrorException.NotFound e) {
@@ -72,20 +134,53 @@ public class BookingApiClient {
         }
     }
 
+    /**
+     * Batch lookup: POST {batchPath} with a JSON array of booking IDs, returning the bookings found.
+     * IDs missing from the response are treated as not found by the caller.
+     */
+    private List<BookingResponse> fetchBookings(List<Long> bookingIds) {
+        log.info("[BookingApiClient] --> POST {} | batch of {} bookingIds", batchPath, bookingIds.size());
+        long start = System.currentTimeMillis();
+        try (BookingApiEvent event = new BookingApiEvent(BookingApiEvent.GET_BOOKINGS, null)) {
+            List<BookingResponse> bookings = restClient.post()
+                    .uri(batchPath)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(bookingIds)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<List<BookingResponse>>() {});
+
+            List<BookingResponse> result = bookings != null ? bookings : List.of();
+            event.setBookingCount(result.size());
+            event.succeeded();
+            log.info("[BookingApiClient] <-- POST {} responded in {} ms | {} of {} bookings returned",
+                    batchPath, System.currentTimeMillis() - start, result.size(), bookingIds.size());
+            return result;
+        } catch (Exception e) {
+            log.error("[BookingApiClient] <-- POST {} FAILED after {} ms | error: {}",
+                    batchPath, System.currentTimeMillis() - start, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch booking details: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Sends the generated Cloudinary invoice URL back to the booking service.
      * POST /invoice-receive  { "bookingId": 123, "invoiceUrl": "https://..." }
      */
     public void sendInvoiceUrl(Long bookingId, String invoiceUrl) {
+        guard.run(() -> postInvoiceUrl(bookingId, invoiceUrl));
+    }
+
+    private void postInvoiceUrl(Long bookingId, String invoiceUrl) {
         log.info("[BookingApiClient] --> POST /invoice-receive | bookingId: {}, invoiceUrl: {}", bookingId, invoiceUrl);
         long start = System.currentTimeMillis();
-        try {
+        try (BookingApiEvent event = new BookingApiEvent(BookingApiEvent.DELIVER_URL, bookingId)) {
             restClient.post()
                     .uri("/api/invoice/invoice-receive")
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(new InvoiceReceiveRequest(bookingId, invoiceUrl))
                     .retrieve()
                     .toBodilessEntity();
+            event.succeeded();
 
             log.info("[BookingApiClient] <-- POST /invoice-receive responded in {} ms | invoice URL delivered successfully for bookingId: {}",
                     System.currentTimeMillis() - start, bookingId);
@@ -95,4 +190,79 @@ public class BookingApiClient {
             throw new RuntimeException("Failed to deliver invoice URL to booking service: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Lists bookings whose booking date falls within [from, to], optionally for a single venue.
+     * GET {searchPath}?from=2026-03-01&to=2026-03-31&resourceId=42
+     *
+     * @return the matching bookings, never null
+     */
+    public List<BookingResponse> findBookings(LocalDate from, LocalDate to, Long resourceId) {
+        return findBookings(from, to, resourceId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #findBookings(LocalDate, LocalDate, Long)}, but stops reading the response after
+     * {@code limit} bookings, so an oversized result set is never held in memory. Ask for one more than
+     * the caller accepts to tell "exactly at the limit" from "over it".
+     */
+    public List<BookingResponse> findBookings(LocalDate from, LocalDate to, Long resourceId, int limit) {
+        return guard.call(() -> searchBookings(from, to, resourceId, limit));
+    }
+
+    private List<BookingResponse> searchBookings(LocalDate from, LocalDate to, Long resourceId, int limit) {
+        log.info("[BookingApiClient] --> GET {} | from: {}, to: {}, resourceId: {}", searchPath, from, to, resourceId);
+        long start = System.currentTimeMillis();
+        try (BookingApiEvent event = new BookingApiEvent(BookingApiEvent.SEARCH, null)) {
+            List<BookingResponse> bookings = restClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path(searchPath)
+                            .queryParam("from", from)
+                            .queryParam("to", to)
+                            .queryParamIfPresent("resourceId", Optional.ofNullable(resourceId))
+                            .build())
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            throw new IOException("HTTP " + response.getStatusCode().value() + " from booking search");
+                        }
+                        return readBookings(response.getBody(), limit);
+                    });
+
+            event.setBookingCount(bookings.size());
+            event.succeeded();
+            log.info("[BookingApiClient] <-- GET {} responded in {} ms | {} bookings{}",
+                    searchPath, System.currentTimeMillis() - start, bookings.size(),
+                    bookings.size() == limit ? " (stopped reading at the limit)" : "");
+            return bookings;
+        } catch (Exception e) {
+            log.error("[BookingApiClient] <-- GET {} FAILED after {} ms | error: {}",
+                    searchPath, System.currentTimeMillis() - start, e.getMessage(), e);
+            throw new RuntimeException("Failed to list bookings: " + e.getMessage(), e);
+        }
+    }
+
+    /** Reads a JSON array of bookings element by element, up to {@code limit}; a null body is an empty list. */
+    private List<BookingResponse> readBookings(InputStream body, int limit) throws IOException {
+        List<BookingResponse> bookings = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return bookings;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of bookings, got " + token);
+            }
+            while (bookings.size() < limit && (token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.VALUE_NULL) {
+                    bookings.add(objectMapper.readValue(parser, BookingResponse.class));
+                }
+            }
+        }
+        return bookings;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coalescer.close();
+    }
 }
@@ -0,0 +1,243 @@
+package com.hyper.invoicebackend.client;
+
+import com.hyper.invoicebackend.dto.BookingResponse;
+import com.hyper.invoicebackend.exception.DependencyUnavailableException;
+import com.hyper.invoicebackend.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Coalesces and micro-batches booking fetches:
+ * <ul>
+ *   <li>concurrent requests for the same booking ID share a single in-flight upstream call;</li>
+ *   <li>distinct IDs arriving within {@code window} are grouped and sent through the batch lookup
+ *       when one is configured, otherwise fanned out individually;</li>
+ *   <li>at most {@code maxConcurrentFetches} upstream calls run at once, with at most
+ *       {@code maxQueuedFetches} more waiting; beyond that lookups fail fast with
+ *       {@link DependencyUnavailableException} rather than piling up behind a slow dependency.</li>
+ * </ul>
+ * A zero window, or no batch lookup, disables grouping but keeps coalescing and the concurrency cap. Callers wait at most
+ * {@code waitTimeout} for a lookup.
+ */
+@Slf4j
+class BookingFetchCoalescer implements AutoCloseable {
+
+    private final String dependency;
+    private final Function<Long, BookingResponse> singleFetch;
+    private final Function<List<Long>, List<BookingResponse>> batchFetch;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final int maxQueuedFetches;
+    private final Duration waitTimeout;
+
+    private final Map<Long, CompletableFuture<BookingResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private List<PendingFetch> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor fetchExecutor;
+
+    private final Counter requests;
+    private final Counter coalesced;
+    private final DistributionSummary batchSizes;
+
+    /**
+     * @param batchFetch optional batch lookup; {@code null} fans distinct IDs out via {@code singleFetch}
+     */
+    BookingFetchCoalescer(String dependency,
+                          Function<Long, BookingResponse> singleFetch,
+                          Function<List<Long>, List<BookingResponse>> batchFetch,
+                          Duration window, int maxBatchSize, int maxConcurrentFetches, int maxQueuedFetches,
+                          Duration waitTimeout, MeterRegistry meterRegistry) {
+        this.dependency = dependency;
+        this.singleFetch = singleFetch;
+        this.batchFetch = batchFetch;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.maxQueuedFetches = maxQueuedFetches;
+        this.waitTimeout = waitTimeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("booking-batcher"));
+        this.fetchExecutor = new ThreadPoolExecutor(maxConcurrentFetches, maxConcurrentFetches, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxQueuedFetches), daemonThreads("booking-fetch"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.requests = Counter.builder("booking.fetch.requests")
+                .description("Booking lookups requested")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("booking.fetch.coalesced")
+                .description("Booking lookups served by joining an in-flight call for the same ID")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("booking.fetch.batch.size")
+                .description("Distinct booking IDs dispatched per upstream batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the booking, joining an in-flight lookup for the same ID if there is one.
+     * Exceptions from the upstream call (e.g. {@link ResourceNotFoundException}) are rethrown as-is.
+     *
+     * @throws DependencyUnavailableException if the fetch queue is full or the lookup outlasts {@code waitTimeout}
+     */
+    BookingResponse get(Long bookingId) {
+        try {
+            return submit(bookingId).get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to fetch booking details: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("[BookingFetchCoalescer] Gave up waiting for bookingId: {} after {}", bookingId, waitTimeout);
+            throw new DependencyUnavailableException(dependency, "lookup not answered within " + waitTimeout, 1, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DependencyUnavailableException(dependency, "interrupted while waiting for lookup", 1, e);
+        }
+    }
+
+    CompletableFuture<BookingResponse> submit(Long bookingId) {
+        requests.increment();
+        CompletableFuture<BookingResponse> created = new CompletableFuture<>();
+        CompletableFuture<BookingResponse> existing = inFlight.putIfAbsent(bookingId, created);
+        if (existing != null) {
+            coalesced.increment();
+            log.debug("[BookingFetchCoalescer] Joined in-flight lookup for bookingId: {}", bookingId);
+            return existing;
+        }
+        created.whenComplete((booking, error) -> inFlight.remove(bookingId, created));
+        enqueue(new PendingFetch(bookingId, created));
+        return created;
+    }
+
+    private void enqueue(PendingFetch fetch) {
+        // Without a batch lookup, waiting for more IDs would only add latency
+        if (window.isZero() || batchFetch == null) {
+            dispatch(List.of(fetch));
+            return;
+        }
+        List<PendingFetch> ready = null;
+        synchronized (lock) {
+            pending.add(fetch);
+            if (pending.size() >= maxBatchSize) {
+                ready = drain();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+    }
+
+    private void flush() {
+        List<PendingFetch> ready;
+        synchronized (lock) {
+            ready = drain();
+        }
+        if (!ready.isEmpty()) {
+            dispatch(ready);
+        }
+    }
+
+    private List<PendingFetch> drain() {
+        List<PendingFetch> ready = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return ready;
+    }
+
+    private void dispatch(List<PendingFetch> fetches) {
+        batchSizes.record(fetches.size());
+        if (batchFetch != null && fetches.size() > 1) {
+            log.debug("[BookingFetchCoalescer] Dispatching batch lookup | size: {}", fetches.size());
+            execute(() -> runBatch(fetches), fetches);
+        } else {
+            if (fetches.size() > 1) {
+                log.debug("[BookingFetchCoalescer] Fanning out {} lookups", fetches.size());
+            }
+            fetches.forEach(fetch -> execute(() -> runSingle(fetch), List.of(fetch)));
+        }
+    }
+
+    private void execute(Runnable task, List<PendingFetch> fetches) {
+        try {
+            fetchExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("[BookingFetchCoalescer] Fetch queue full ({} running, {} queued), rejecting {} lookups",
+                    fetchExecutor.getActiveCount(), fetchExecutor.getQueue().size(), fetches.size());
+            DependencyUnavailableException unavailable = new DependencyUnavailableException(dependency,
+                    "too many queued lookups (max " + maxQueuedFetches + ")", 1, e);
+            fetches.forEach(fetch -> fetch.future().completeExceptionally(unavailable));
+        }
+    }
+
+    private void runSingle(PendingFetch fetch) {
+        try {
+            fetch.future().complete(singleFetch.apply(fetch.bookingId()));
+        } catch (Throwable t) {
+            fetch.future().completeExceptionally(t);
+        }
+    }
+
+    private void runBatch(List<PendingFetch> fetches) {
+        try {
+            Map<Long, BookingResponse> byId = new HashMap<>();
+            for (BookingResponse booking : batchFetch.apply(fetches.stream().map(PendingFetch::bookingId).toList())) {
+                byId.put(booking.getId(), booking);
+            }
+            for (PendingFetch fetch : fetches) {
+                BookingResponse booking = byId.get(fetch.bookingId());
+                if (booking != null) {
+                    fetch.future().complete(booking);
+                } else {
+                    fetch.future().completeExceptionally(new ResourceNotFoundException("Booking", "id", fetch.bookingId()));
+                }
+            }
+        } catch (Throwable t) {
+            fetches.forEach(fetch -> fetch.future().completeExceptionally(t));
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    private record PendingFetch(Long bookingId, CompletableFuture<BookingResponse> future) {}
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
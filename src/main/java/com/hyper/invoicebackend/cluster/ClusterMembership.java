@@ -0,0 +1,176 @@
+package com.hyper.invoicebackend.cluster;
+
+import com.hyper.invoicebackend.config.ClusterProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Static cluster membership with health checking. Every node hashes booking IDs onto a ring of the
+ * peers it currently considers healthy (always including itself). A peer is taken off the ring after
+ * {@code failure-threshold} failed health probes, or immediately when a forward to it cannot connect,
+ * and put back on its first successful probe; its bookings move to the next node on the ring meanwhile.
+ * Since all nodes share the peer list and hash function, nodes that agree on health agree on owners.
+ */
+@Slf4j
+@Component
+public class ClusterMembership {
+
+    private final ClusterProperties properties;
+    private final String self;
+    private final Map<String, Integer> failures = new LinkedHashMap<>();
+    private final RestClient healthClient;
+    private final ScheduledExecutorService healthChecker;
+
+    private volatile ConsistentHashRing ring;
+
+    public ClusterMembership(ClusterProperties properties, RestClient.Builder builder, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        if (!properties.isEnabled()) {
+            this.self = null;
+            this.healthClient = null;
+            this.healthChecker = null;
+            return;
+        }
+        if (properties.getSelf() == null || properties.getSelf().isBlank()) {
+            throw new IllegalStateException("cluster.self must be set when cluster.enabled=true");
+        }
+        this.self = normalize(properties.getSelf());
+        Set<String> nodes = new LinkedHashSet<>();
+        nodes.add(self);
+        properties.getPeers().stream().map(ClusterMembership::normalize).forEach(nodes::add);
+        nodes.stream().filter(node -> !node.equals(self)).forEach(peer -> failures.put(peer, 0));
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getHealthCheckTimeout());
+        requestFactory.setReadTimeout(properties.getHealthCheckTimeout());
+        this.healthClient = builder.requestFactory(requestFactory).build();
+
+        // Peers start on the ring so that freshly started nodes agree on owners before the first probe
+        rebuildRing("startup");
+        Gauge.builder("cluster.members.healthy", this, membership -> membership.ring.nodes().size())
+                .description("Nodes on this node's hash ring, itself included")
+                .register(meterRegistry);
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cluster-health");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkPeers, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("[ClusterMembership] Cluster mode ENABLED | self: {}, peers: {}, virtualNodes: {}",
+                self, failures.keySet(), properties.getVirtualNodes());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String self() {
+        return self;
+    }
+
+    /** @return the node that owns the booking; equal to {@link #self()} when it is served here */
+    public String ownerOf(long bookingId) {
+        return ring.owner(bookingId);
+    }
+
+    public boolean isLocal(long bookingId) {
+        return !isEnabled() || self.equals(ownerOf(bookingId));
+    }
+
+    /** @return whether the node is one of the configured peers (other than this node), healthy or not */
+    public boolean isPeer(String node) {
+        return isEnabled() && node != null && failures.containsKey(normalize(node));
+    }
+
+    /** Takes a peer off the ring right away, e.g. after a forward could not connect. */
+    public void markDown(String peer, String reason) {
+        synchronized (failures) {
+            Integer count = failures.get(peer);
+            if (count == null || count >= properties.getFailureThreshold()) {
+                return;
+            }
+            failures.put(peer, properties.getFailureThreshold());
+            log.warn("[ClusterMembership] Peer {} DOWN | {}", peer, reason);
+            rebuildRing(peer + " down");
+        }
+    }
+
+    // ── Health ───────────────────────────────────────────────────────────────
+
+    private void checkPeers() {
+        for (String peer : List.copyOf(failures.keySet())) {
+            String error = probe(peer);
+            synchronized (failures) {
+                int before = failures.get(peer);
+                int threshold = properties.getFailureThreshold();
+                if (error == null) {
+                    failures.put(peer, 0);
+                    if (before >= threshold) {
+                        log.info("[ClusterMembership] Peer {} UP", peer);
+                        rebuildRing(peer + " up");
+                    }
+                } else if (before < threshold) {
+                    failures.put(peer, before + 1);
+                    if (before + 1 >= threshold) {
+                        log.warn("[ClusterMembership] Peer {} DOWN after {} failed health checks | error: {}",
+                                peer, threshold, error);
+                        rebuildRing(peer + " down");
+                    }
+                }
+            }
+        }
+    }
+
+    /** @return null when healthy, otherwise the reason */
+    private String probe(String peer) {
+        try {
+            healthClient.get().uri(peer + "/actuator/health").retrieve().toBodilessEntity();
+            return null;
+        } catch (Exception e) {
+            return e.getMessage();
+        }
+    }
+
+    /** Caller holds {@code failures} (or is the constructor). */
+    private void rebuildRing(String reason) {
+        List<String> healthy = new ArrayList<>();
+        healthy.add(self);
+        failures.forEach((peer, count) -> {
+            if (count < properties.getFailureThreshold()) {
+                healthy.add(peer);
+            }
+        });
+        ring = new ConsistentHashRing(healthy, properties.getVirtualNodes());
+        log.info("[ClusterMembership] Ring rebuilt ({}) | {} of {} nodes: {}",
+                reason, healthy.size(), failures.size() + 1, healthy);
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+}
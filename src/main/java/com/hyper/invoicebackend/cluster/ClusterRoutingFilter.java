@@ -0,0 +1,308 @@
+package com.hyper.invoicebackend.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hyper.invoicebackend.config.ClusterProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cluster mode: sends each booking-keyed request to the node owning its booking ID (see
+ * {@link ClusterMembership}), so per-node caches, fetch coalescing and pre-generated invoices are hit
+ * and one booking is never rendered on two nodes at once. The owner's response (including errors) is
+ * relayed unchanged. Forwarded requests carry {@value #FORWARDED_HEADER} and are always served where
+ * they land; if the owner cannot be reached it is marked down and the request re-routed.
+ * Every routed response carries {@value #SERVED_BY_HEADER}.
+ * <p>
+ * The forwarding header is only honoured from a configured peer that signed the request:
+ * HMAC-SHA256 with {@code cluster.secret} over {@code <sender>.<timestamp>.<uri>.<body>}, sent in
+ * {@value #FORWARD_TIMESTAMP_HEADER} (epoch seconds, within {@code forward-max-clock-skew}) and
+ * {@value #FORWARD_SIGNATURE_HEADER}. Otherwise the request is routed like any other.
+ */
+@Slf4j
+@Component
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    public static final String FORWARDED_HEADER = "X-Hyper-Forwarded-By";
+    public static final String SERVED_BY_HEADER = "X-Hyper-Served-By";
+    public static final String FORWARD_TIMESTAMP_HEADER = "X-Hyper-Forward-Timestamp";
+    public static final String FORWARD_SIGNATURE_HEADER = "X-Hyper-Forward-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    /** Routed endpoints and the JSON field holding the booking ID. Export spans many bookings and stays local. */
+    private static final Map<String, String> BOOKING_ID_FIELDS = Map.of(
+            "/api/invoices/generate", "bookingId",
+            "/api/invoices/pregenerate", "bookingId",
+            "/api/invoices/push", "id");
+
+    private static final Set<String> UNFORWARDED_HEADERS = Set.of(
+            "host", "content-length", "connection", "transfer-encoding", "keep-alive", "upgrade", "expect");
+
+    private final ClusterMembership membership;
+    private final ObjectMapper objectMapper;
+    private final RestClient forwardClient;
+    private final byte[] secret;
+    private final Duration maxClockSkew;
+
+    public ClusterRoutingFilter(ClusterMembership membership,
+                                ClusterProperties properties,
+                                ObjectMapper objectMapper,
+                                RestClient.Builder builder) {
+        this.membership = membership;
+        this.objectMapper = objectMapper;
+        if (properties.isEnabled() && (properties.getSecret() == null || properties.getSecret().isBlank())) {
+            throw new IllegalStateException("cluster.secret must be set when cluster.enabled=true");
+        }
+        this.secret = properties.getSecret() != null ? properties.getSecret().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        this.maxClockSkew = properties.getForwardMaxClockSkew();
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getForwardConnectTimeout());
+        requestFactory.setReadTimeout(properties.getForwardReadTimeout());
+        this.forwardClient = builder.requestFactory(requestFactory).build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !membership.isEnabled()
+                || !"POST".equals(request.getMethod())
+                || !BOOKING_ID_FIELDS.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpServletRequest replayable = new CachedBodyRequest(request, body);
+
+        String forwardedBy = verifiedSender(request, body);
+        Long bookingId = forwardedBy == null ? bookingId(BOOKING_ID_FIELDS.get(path(request)), body) : null;
+        if (bookingId == null) {
+            // already forwarded once, or no usable ID (validation will reject it locally)
+            if (forwardedBy != null) {
+                log.debug("[ClusterRoutingFilter] Serving {} forwarded by {}", path(request), forwardedBy);
+            }
+            serveLocally(replayable, response, chain);
+            return;
+        }
+
+        String owner;
+        while (!(owner = membership.ownerOf(bookingId)).equals(membership.self())) {
+            try {
+                forward(owner, request, body, response);
+                return;
+            } catch (ResourceAccessException e) {
+                if (!isUnreachable(e)) {
+                    // The owner may still be generating; serving here too could issue a second invoice
+                    log.error("[ClusterRoutingFilter] Forward of bookingId: {} to {} FAILED | error: {}",
+                            bookingId, owner, e.getMessage());
+                    response.setHeader(SERVED_BY_HEADER, owner);
+                    response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Owning node did not respond: " + owner);
+                    return;
+                }
+                membership.markDown(owner, "forward failed: " + e.getMessage());
+            }
+        }
+        log.debug("[ClusterRoutingFilter] bookingId: {} is owned here", bookingId);
+        serveLocally(replayable, response, chain);
+    }
+
+    private void serveLocally(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        response.setHeader(SERVED_BY_HEADER, membership.self());
+        chain.doFilter(request, response);
+    }
+
+    private void forward(String owner, HttpServletRequest request, byte[] body, HttpServletResponse response) {
+        URI target = URI.create(owner + uri(request));
+        log.info("[ClusterRoutingFilter] --> Forwarding {} to owner {}", request.getRequestURI(), owner);
+        long start = System.currentTimeMillis();
+        forwardClient.post()
+                .uri(target)
+                .headers(headers -> {
+                    for (String name : Collections.list(request.getHeaderNames())) {
+                        if (!UNFORWARDED_HEADERS.contains(name.toLowerCase())) {
+                            headers.addAll(name, Collections.list(request.getHeaders(name)));
+                        }
+                    }
+                    String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+                    headers.set(FORWARDED_HEADER, membership.self());
+                    headers.set(FORWARD_TIMESTAMP_HEADER, timestamp);
+                    headers.set(FORWARD_SIGNATURE_HEADER,
+                            HexFormat.of().formatHex(sign(membership.self(), timestamp, uri(request), body)));
+                })
+                .body(body)
+                .exchange((clientRequest, ownerResponse) -> {
+                    response.setStatus(ownerResponse.getStatusCode().value());
+                    ownerResponse.getHeaders().forEach((name, values) -> {
+                        if (!UNFORWARDED_HEADERS.contains(name.toLowerCase())) {
+                            values.forEach(value -> response.addHeader(name, value));
+                        }
+                    });
+                    if (!ownerResponse.getHeaders().containsKey(SERVED_BY_HEADER)) {
+                        response.setHeader(SERVED_BY_HEADER, owner);
+                    }
+                    ownerResponse.getBody().transferTo(response.getOutputStream());
+                    return null;
+                });
+        log.info("[ClusterRoutingFilter] <-- {} answered {} in {} ms",
+                owner, response.getStatus(), System.currentTimeMillis() - start);
+    }
+
+    // ── Peer authentication ──────────────────────────────────────────────────
+
+    /** @return the forwarding peer if the request was signed by one, otherwise null (route normally) */
+    private String verifiedSender(HttpServletRequest request, byte[] body) {
+        String sender = request.getHeader(FORWARDED_HEADER);
+        if (sender == null) {
+            return null;
+        }
+        String timestamp = request.getHeader(FORWARD_TIMESTAMP_HEADER);
+        String signature = request.getHeader(FORWARD_SIGNATURE_HEADER);
+        String reason = null;
+        if (!membership.isPeer(sender)) {
+            reason = "not a configured peer";
+        } else if (timestamp == null || signature == null) {
+            reason = "unsigned";
+        } else {
+            try {
+                long skew = Math.abs(System.currentTimeMillis() / 1000 - Long.parseLong(timestamp));
+                if (skew > maxClockSkew.toSeconds()) {
+                    reason = "timestamp " + skew + " s from now";
+                } else if (!MessageDigest.isEqual(sign(sender, timestamp, uri(request), body),
+                        HexFormat.of().parseHex(signature))) {
+                    reason = "signature mismatch";
+                }
+            } catch (IllegalArgumentException e) {
+                reason = "malformed timestamp or signature";
+            }
+        }
+        if (reason != null) {
+            log.warn("[ClusterRoutingFilter] Ignoring {} claiming {} | {}", FORWARDED_HEADER, sender, reason);
+            return null;
+        }
+        return sender;
+    }
+
+    private byte[] sign(String sender, String timestamp, String uri, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            for (String part : new String[]{sender, timestamp, uri}) {
+                mac.update(part.getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) '.');
+            }
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+
+    /** Failed before the owner saw the request, so re-routing cannot duplicate work. */
+    private static boolean isUnreachable(ResourceAccessException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof ConnectException
+                || cause instanceof NoRouteToHostException
+                || cause instanceof UnknownHostException
+                || cause instanceof SocketTimeoutException && String.valueOf(cause.getMessage()).startsWith("Connect");
+    }
+
+    private Long bookingId(String field, byte[] body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).path(field);
+            return id.canConvertToLong() ? id.asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return request.getRequestURI() + (query != null ? "?" + query : "");
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /** Re-serves the body consumed while looking up the booking ID. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.hyper.invoicebackend.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring: each node is placed at {@code virtualNodes} points, and a key is owned
+ * by the first node clockwise from the key's hash. Removing a node only moves the keys it owned.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final List<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(nodes);
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /** @return the owning node, or null if the ring is empty */
+    public String owner(long key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(Long.toString(key)));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /** First 8 bytes of MD5 — stable across JVMs and nodes, unlike {@link String#hashCode()} spread. */
+    private static long hash(String value) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+}
@@ -22,6 +22,9 @@ public class CloudinaryConfig {
     @Value("${cloudinary.api-secret}")
     private String apiSecret;
 
+    @Value("${cloudinary.timeout-seconds:30}")
+    private int timeoutSeconds;
+
     @Bean
     public Cloudinary cloudinary() {
         log.info("[CloudinaryConfig] Initializing Cloudinary bean | cloud-name: {}, api-key: {}***",
@@ -31,8 +34,9 @@ public class CloudinaryConfig {
         config.put("api_key", apiKey);
         config.put("api_secret", apiSecret);
         config.put("secure", "true");
+        config.put("timeout", String.valueOf(timeoutSeconds));
         Cloudinary cloudinary = new Cloudinary(config);
-        log.info("[CloudinaryConfig] Cloudinary bean initialized successfully | secure: true");
+        log.info("[CloudinaryConfig] Cloudinary bean initialized successfully | secure: true, timeout: {}s", timeoutSeconds);
         return cloudinary;
     }
 }
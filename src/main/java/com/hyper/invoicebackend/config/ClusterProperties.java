@@ -0,0 +1,41 @@
+package com.hyper.invoicebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds {@code cluster.*} — sharding of booking-keyed requests across a static set of replicas.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cluster")
+public class ClusterProperties {
+
+    private boolean enabled = false;
+    /** This node's base URL exactly as it appears in {@code peers}, e.g. {@code http://10.0.0.5:8080}. */
+    private String self;
+    /** Base URLs of all nodes, the same list on every node (self may be included). */
+    private List<String> peers = new ArrayList<>();
+    /** Points per node on the hash ring; more gives a more even spread. */
+    private int virtualNodes = 128;
+    /** Peers are probed via {@code GET /actuator/health} this often. */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+    /** Consecutive failed probes before a peer is taken off the ring. */
+    private int failureThreshold = 2;
+    /**
+     * Shared by all nodes; forwarded requests are signed with it so that a client cannot claim to be a
+     * peer (and skip routing) by setting the forwarding header. Required when cluster mode is enabled.
+     */
+    private String secret;
+    /** Forwarding signatures older or newer than this are ignored. */
+    private Duration forwardMaxClockSkew = Duration.ofSeconds(30);
+    private Duration forwardConnectTimeout = Duration.ofSeconds(2);
+    /** Must cover a full invoice generation on the owning node. */
+    private Duration forwardReadTimeout = Duration.ofSeconds(120);
+}
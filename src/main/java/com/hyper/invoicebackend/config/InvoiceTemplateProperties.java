@@ -0,0 +1,42 @@
+package com.hyper.invoicebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binds {@code invoice.templates.*} — the catalogue of document templates
+ * (invoice, receipt, GST tax invoice, statement, ...) that can be selected per request.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "invoice.templates")
+public class InvoiceTemplateProperties {
+
+    /** Template key used when neither the request nor the venue selects one. */
+    private String defaultTemplate = "invoice";
+
+    /** Maximum number of parsed templates kept in the LRU template cache. */
+    private int cacheMaxSize = 50;
+
+    /** Parse and cache every registered template on startup instead of on first use. */
+    private boolean preload = true;
+
+    /** Template key -> definition. */
+    private Map<String, Definition> definitions = new LinkedHashMap<>();
+
+    @Data
+    public static class Definition {
+        /** Thymeleaf template name (without .html extension). */
+        private String templateName;
+        /** Heading printed on the document, e.g. "Tax Invoice". */
+        private String title;
+        /** Short document code printed in the header, e.g. "INV". */
+        private String documentType;
+        /** Statement mode: one unpriced line item per child booking instead of a single slot line. */
+        private boolean statement;
+    }
+}
@@ -0,0 +1,97 @@
+package com.hyper.invoicebackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.thymeleaf.cache.AbstractCacheManager;
+import org.thymeleaf.cache.ExpressionCacheKey;
+import org.thymeleaf.cache.ICache;
+import org.thymeleaf.cache.ICacheEntryValidityChecker;
+import org.thymeleaf.cache.StandardCacheManager;
+import org.thymeleaf.cache.StandardParsedTemplateEntryValidator;
+import org.thymeleaf.cache.TemplateCacheKey;
+import org.thymeleaf.engine.TemplateModel;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Thymeleaf cache manager whose parsed-template cache evicts the least recently used
+ * template once {@code maxSize} is reached. The expression cache is Thymeleaf's standard one.
+ */
+@Slf4j
+public class LruTemplateCacheManager extends AbstractCacheManager {
+
+    private final int maxSize;
+
+    public LruTemplateCacheManager(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    protected ICache<TemplateCacheKey, TemplateModel> initializeTemplateCache() {
+        log.info("[LruTemplateCacheManager] Initializing LRU template cache | maxSize: {}", maxSize);
+        return new LruCache<>(maxSize, new StandardParsedTemplateEntryValidator());
+    }
+
+    @Override
+    protected ICache<ExpressionCacheKey, Object> initializeExpressionCache() {
+        return new StandardCacheManager().getExpressionCache();
+    }
+
+    static class LruCache<K, V> implements ICache<K, V> {
+
+        private final Map<K, V> entries;
+        private final ICacheEntryValidityChecker<? super K, ? super V> validityChecker;
+
+        LruCache(int maxSize, ICacheEntryValidityChecker<? super K, ? super V> validityChecker) {
+            this.validityChecker = validityChecker;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    boolean evict = size() > maxSize;
+                    if (evict) {
+                        log.debug("[LruTemplateCacheManager] Evicting least recently used template: {}", eldest.getKey());
+                    }
+                    return evict;
+                }
+            };
+        }
+
+        @Override
+        public synchronized void put(K key, V value) {
+            entries.put(key, value);
+        }
+
+        @Override
+        public V get(K key) {
+            return get(key, validityChecker);
+        }
+
+        @Override
+        public synchronized V get(K key, ICacheEntryValidityChecker<? super K, ? super V> checker) {
+            V value = entries.get(key);
+            if (value != null && checker != null
+                    && !checker.checkIsValueStillValid(key, value, System.currentTimeMillis())) {
+                entries.remove(key);
+                return null;
+            }
+            return value;
+        }
+
+        @Override
+        public synchronized void clear() {
+            entries.clear();
+        }
+
+        @Override
+        public synchronized void clearKey(K key) {
+            entries.remove(key);
+        }
+
+        @Override
+        public synchronized Set<K> keySet() {
+            return new HashSet<>(entries.keySet());
+        }
+    }
+}
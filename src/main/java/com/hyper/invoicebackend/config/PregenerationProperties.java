@@ -0,0 +1,49 @@
+package com.hyper.invoicebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Binds {@code invoice.pregeneration.*} — speculative pre-generation of invoices for confirmed bookings.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "invoice.pregeneration")
+public class PregenerationProperties {
+
+    /** Off by default: speculative rendering costs CPU for bookings that may never be invoiced. */
+    private boolean enabled = false;
+    /** Background threads rendering staged invoices; they run at minimum thread priority. */
+    private int workers = 1;
+    /** Pending bookings beyond this are dropped rather than queued. */
+    private int queueCapacity = 200;
+    /** Minimum pause between two pre-generations on a worker. */
+    private Duration minInterval = Duration.ofMillis(500);
+    /** Pre-generation waits while system CPU load (0.0-1.0) is above this. */
+    private double maxCpuLoad = 0.6;
+    /** How often the CPU load is re-checked while waiting for idle time. */
+    private Duration idleCheckInterval = Duration.ofSeconds(1);
+    /** Staged invoices older than this are discarded instead of served; also bounds how stale one can be. */
+    private Duration ttl = Duration.ofMinutes(30);
+    /** Maximum staged (or in-progress) invoices held in memory; oldest are evicted first. */
+    private int maxStaged = 500;
+    /** How long a generate request waits for a pre-generation already in progress for its booking. */
+    private Duration awaitInFlight = Duration.ofSeconds(10);
+
+    private Feed feed = new Feed();
+
+    @Data
+    public static class Feed {
+        /** Poll the booking search API for newly confirmed bookings. */
+        private boolean enabled = false;
+        private Duration interval = Duration.ofSeconds(30);
+        /** Bookings dated from today up to this many days ahead are considered. */
+        private int lookaheadDays = 7;
+        /** Booking statuses (case-insensitive) that count as confirmed. */
+        private List<String> confirmedStatuses = List.of("CONFIRMED");
+    }
+}
@@ -0,0 +1,43 @@
+package com.hyper.invoicebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Binds {@code render.workers.*} — optional pool of child JVMs doing the HTML-to-PDF conversion.
+ * <p>
+ * Memory: each worker costs roughly its heap + ~64 MB metaspace/code cache + ~30 MB native, so the
+ * default (one worker, 96 MB heap) is about 190 MB RSS. The Dockerfile's API budget already fills the
+ * 512 MB Render free-tier container; enabling workers there means lowering the API's {@code -Xmx}
+ * (rendering no longer happens in its heap) to about 120 MB, or moving to a larger plan.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "render.workers")
+public class RenderWorkerProperties {
+
+    /** Off by default: PDFs are converted in-process. */
+    private boolean enabled = false;
+    /** Worker processes; each converts one document at a time and adds ~190 MB RSS with the default options. */
+    private int count = 1;
+    /** JVM options for each worker (whitespace-separated); sized for PDF conversion only. */
+    private String jvmOptions = "-Xmx96m -XX:MaxMetaspaceSize=64m -XX:ReservedCodeCacheSize=16m -XX:+UseSerialGC"
+            + " -XX:TieredStopAtLevel=1 -XX:-UsePerfData -XX:+ExitOnOutOfMemoryError";
+    /** A worker that has not answered a render within this is killed and restarted. */
+    private Duration renderTimeout = Duration.ofSeconds(60);
+    /** Time a freshly started worker gets to report ready. */
+    private Duration startupTimeout = Duration.ofSeconds(30);
+    /** How long a render waits for a free worker before it is rejected with 503; keep well below client timeouts. */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+    /** Idle workers are pinged this often; dead or unresponsive ones are restarted. */
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+    private Duration pingTimeout = Duration.ofSeconds(5);
+    /**
+     * Convert in-process when the workers could not render the document (crashed twice, or over the frame
+     * limit). Never applies when all workers are busy: that load would land on the heap the pool protects.
+     */
+    private boolean fallbackInProcess = true;
+}
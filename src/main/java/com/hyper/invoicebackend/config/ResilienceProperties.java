@@ -0,0 +1,41 @@
+package com.hyper.invoicebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Binds {@code resilience.*} — circuit breaker and bulkhead settings for each outbound dependency.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "resilience")
+public class ResilienceProperties {
+
+    private Dependency bookingApi = new Dependency();
+    private Dependency cloudinary = new Dependency();
+
+    @Data
+    public static class Dependency {
+        /** Failure percentage over the sliding window that opens the circuit. */
+        private float failureRateThreshold = 50;
+        /** Percentage of slow calls (see {@link #slowCallDuration}) over the sliding window that opens the circuit. */
+        private float slowCallRateThreshold = 80;
+        /** Number of most recent calls the failure rate is computed over. */
+        private int slidingWindowSize = 10;
+        /** Calls required in the window before the failure rate is evaluated. */
+        private int minimumNumberOfCalls = 5;
+        /** Calls slower than this count as slow, successful or not. */
+        private Duration slowCallDuration = Duration.ofSeconds(10);
+        /** How long the circuit stays open before half-open probing starts. */
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+        /** Probe calls let through while half-open; all must succeed to close again. */
+        private int permittedCallsInHalfOpenState = 2;
+        /** Bulkhead: maximum concurrent calls into the dependency. */
+        private int maxConcurrentCalls = 10;
+        /** Bulkhead: how long a caller may wait for a free slot before failing fast. */
+        private Duration maxWaitDuration = Duration.ZERO;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hyper.invoicebackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+@Slf4j
+@Configuration
+public class ThymeleafConfig {
+
+    /**
+     * Swaps the auto-configured engine's cache manager for an LRU one before the engine
+     * initializes (it does so lazily, on first use).
+     */
+    @Bean
+    static BeanPostProcessor lruTemplateCacheInstaller(
+            @Value("${invoice.templates.cache-max-size:50}") int cacheMaxSize) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof SpringTemplateEngine engine) {
+                    log.info("[ThymeleafConfig] Installing LRU template cache on '{}' | maxSize: {}",
+                            beanName, cacheMaxSize);
+                    engine.setCacheManager(new LruTemplateCacheManager(cacheMaxSize));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.hyper.invoicebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binds {@code invoice.branding.*} — issuer defaults plus per-venue overrides,
+ * keyed by the booking's resourceId.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "invoice.branding")
+public class VenueBrandingProperties {
+
+    /** Issuer name printed when a venue has no override. */
+    private String issuerName = "HyperInvoice";
+
+    /** Default SAC code for venues without an override. */
+    private String sacCode;
+
+    /** resourceId -> venue branding overrides. */
+    private Map<Long, Venue> venues = new HashMap<>();
+
+    @Data
+    public static class Venue {
+        private String issuerName;
+        private String venueName;
+        private String gstin;
+        private String address;
+        private String state;
+        private String placeOfSupply;
+        private String sacCode;
+        /** Template key used for this venue's documents unless the request selects one; must be registered. */
+        private String template;
+    }
+}
@@ -1,14 +1,26 @@
 package com.hyper.invoicebackend.controller;
 
+import com.hyper.invoicebackend.dto.BookingResponse;
+import com.hyper.invoicebackend.dto.InvoiceExportRequestDTO;
 import com.hyper.invoicebackend.dto.InvoiceRequestDTO;
 import com.hyper.invoicebackend.dto.InvoiceResponseDTO;
+import com.hyper.invoicebackend.security.BookingPushVerifier;
+import com.hyper.invoicebackend.service.InvoiceExportService;
+import com.hyper.invoicebackend.service.InvoicePregenerationService;
 import com.hyper.invoicebackend.service.InvoiceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 @Slf4j
 @RestController
@@ -16,7 +28,12 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class InvoiceController {
 
+    private static final DateTimeFormatter EXPORT_FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     private final InvoiceService invoiceService;
+    private final InvoiceExportService invoiceExportService;
+    private final InvoicePregenerationService invoicePregenerationService;
+    private final BookingPushVerifier bookingPushVerifier;
 
     /**
      * POST /api/invoices/generate
@@ -41,4 +58,91 @@ public class InvoiceController {
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+
+    /**
+     * POST /api/invoices/pregenerate
+     * "Booking confirmed" notification: queues the booking so its invoice is rendered
+     * in the background, and a later /generate for it only uploads and delivers the staged PDF
+     * (as does /push with an incomplete payload; a complete pushed booking is always rendered afresh).
+     */
+    @PostMapping("/pregenerate")
+    public ResponseEntity<InvoiceResponseDTO> pregenerateInvoice(
+            @Valid @RequestBody InvoiceRequestDTO request) {
+        log.info("[InvoiceController] Incoming POST /api/invoices/pregenerate | bookingId: {}, template: {}",
+                request.getBookingId(), request.getTemplate());
+
+        boolean queued = invoicePregenerationService.submit(request.getBookingId(), request.getTemplate());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(InvoiceResponseDTO.builder()
+                .message(queued
+                        ? "Invoice queued for pre-generation"
+                        : "Invoice not queued (already queued, pre-generation disabled, or queue full)")
+                .build());
+    }
+
+    /**
+     * POST /api/invoices/push
+     * Push mode: the booking service sends the full booking (BookingResponse JSON) signed with the
+     * shared secret (the signature also covers ?template=), and the invoice is generated without
+     * calling back for the booking. Each signed request is accepted once; if generation fails, the
+     * identical request may be retried.
+     * Otherwise identical to /generate.
+     */
+    @PostMapping(value = "/push", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<InvoiceResponseDTO> generatePushedInvoice(
+            @RequestBody byte[] body,
+            @RequestHeader(value = BookingPushVerifier.TIMESTAMP_HEADER, required = false) String timestamp,
+            @RequestHeader(value = BookingPushVerifier.SIGNATURE_HEADER, required = false) String signature,
+            @RequestParam(required = false) String template) {
+        log.info("========== [InvoiceController] Incoming POST /api/invoices/push ==========");
+        log.info("[InvoiceController] Request payload -> {} bytes, template: {}", body.length, template);
+
+        long startTime = System.currentTimeMillis();
+
+        BookingResponse booking = bookingPushVerifier.verify(body, timestamp, signature, template);
+        InvoiceResponseDTO response;
+        try {
+            response = invoiceService.generateInvoice(booking, template);
+        } catch (RuntimeException e) {
+            // nothing was delivered, so let the booking service retry the same signed request
+            bookingPushVerifier.release(signature);
+            throw e;
+        }
+
+        log.info("[InvoiceController] Pushed invoice generation completed in {} ms", System.currentTimeMillis() - startTime);
+        log.info("[InvoiceController] Response -> invoiceNumber: {}, cloudinaryUrl: {}, message: {}",
+                response.getInvoiceNumber(), response.getCloudinaryUrl(), response.getMessage());
+        log.info("========== [InvoiceController] Returning HTTP 201 CREATED ==========");
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * POST /api/invoices/export
+     * Accepts a list of bookingIds or a from/to date range (optionally a resourceId),
+     * renders each invoice and streams them back as a single ZIP download.
+     * The PDFs are copies (titled "(Copy)", no invoice number) named {@code booking-<id>[-<reference>]-copy.pdf}.
+     * An unknown template or an oversized selection is rejected with 400 before streaming starts.
+     * Invoices are not uploaded to Cloudinary or delivered to the booking service.
+     */
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @Valid @RequestBody InvoiceExportRequestDTO request) {
+        log.info("========== [InvoiceController] Incoming POST /api/invoices/export ==========");
+        log.info("[InvoiceController] Request payload -> bookingIds: {}, from: {}, to: {}, resourceId: {}, template: {}",
+                request.getBookingIds() != null ? request.getBookingIds().size() : 0,
+                request.getFrom(), request.getTo(), request.getResourceId(), request.getTemplate());
+
+        InvoiceExportService.ExportPlan plan = invoiceExportService.plan(request);
+        String filename = "invoices-" + LocalDateTime.now().format(EXPORT_FILE_TIMESTAMP) + ".zip";
+        StreamingResponseBody body = outputStream -> invoiceExportService.writeZip(plan, outputStream);
+
+        log.info("========== [InvoiceController] Returning HTTP 200 OK | streaming {} invoices as '{}' ==========",
+                plan.bookingIds().size(), filename);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
 }
@@ -0,0 +1,35 @@
+package com.hyper.invoicebackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Selects the invoices to export: either an explicit list of booking IDs,
+ * or a booking-date range (optionally narrowed to one venue).
+ */
+@Data
+public class InvoiceExportRequestDTO {
+
+    private List<Long> bookingIds;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Long resourceId;
+
+    /** Optional template key applied to every invoice in the archive. */
+    private String template;
+
+    @JsonIgnore
+    @AssertTrue(message = "Provide either bookingIds or a from/to date range")
+    public boolean isSelectionValid() {
+        boolean hasIds = bookingIds != null && !bookingIds.isEmpty();
+        boolean hasRange = from != null && to != null && !from.isAfter(to);
+        return hasIds || hasRange;
+    }
+}
@@ -8,4 +8,7 @@ public class InvoiceRequestDTO {
 
     @NotNull(message = "Booking ID is required")
     private Long bookingId;
+
+    /** Optional template key (e.g. "receipt", "gst-tax-invoice"); defaults to the venue's or the global default. */
+    private String template;
 }
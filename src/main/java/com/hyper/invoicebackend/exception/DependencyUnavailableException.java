@@ -0,0 +1,25 @@
+package com.hyper.invoicebackend.exception;
+
+/**
+ * Thrown instead of calling an outbound dependency whose circuit breaker is open
+ * or whose bulkhead is full, so callers fail fast rather than queueing behind it.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    private final String dependency;
+    private final long retryAfterSeconds;
+
+    public DependencyUnavailableException(String dependency, String reason, long retryAfterSeconds, Throwable cause) {
+        super(String.format("%s is temporarily unavailable: %s", dependency, reason), cause);
+        this.dependency = dependency;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
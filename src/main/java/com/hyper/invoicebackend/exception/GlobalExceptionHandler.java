@@ -1,6 +1,7 @@
 package com.hyper.invoicebackend.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -37,6 +38,18 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRequestException(InvalidRequestException ex) {
+        log.warn("[GlobalExceptionHandler] InvalidRequestException -> {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidSignatureException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidSignatureException(InvalidSignatureException ex) {
+        log.warn("[GlobalExceptionHandler] InvalidSignatureException -> {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.UNAUTHORIZED, "Unauthorized", ex.getMessage());
+    }
+
     @ExceptionHandler(PdfGenerationException.class)
     public ResponseEntity<Map<String, Object>> handlePdfGenerationException(PdfGenerationException ex) {
         log.error("[GlobalExceptionHandler] PdfGenerationException -> {}", ex.getMessage(), ex);
@@ -49,6 +62,17 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Cloudinary Upload Failed", ex.getMessage());
     }
 
+    @ExceptionHandler(DependencyUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleDependencyUnavailableException(DependencyUnavailableException ex) {
+        log.warn("[GlobalExceptionHandler] DependencyUnavailableException -> dependency: {}, message: {}",
+                ex.getDependency(), ex.getMessage());
+        ResponseEntity<Map<String, Object>> response =
+                buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Dependency Unavailable", ex.getMessage());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         log.error("[GlobalExceptionHandler] Unhandled exception -> type: {}, message: {}",
@@ -0,0 +1,8 @@
+package com.hyper.invoicebackend.exception;
+
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.hyper.invoicebackend.exception;
+
+/**
+ * Thrown when a pushed booking payload is unsigned, carries a bad signature or a stale timestamp,
+ * or push mode has no shared secret configured.
+ */
+public class InvalidSignatureException extends RuntimeException {
+
+    public InvalidSignatureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package com.hyper.invoicebackend.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.hyper.invoice.BookingApiCall")
+@Label("Booking API Call")
+@Description("HTTP call from BookingApiClient to the booking service")
+public class BookingApiEvent extends PipelineEvent {
+
+    public static final String GET_BOOKING   = "getBooking";
+    public static final String GET_BOOKINGS  = "getBookings";
+    public static final String SEARCH        = "search";
+    public static final String DELIVER_URL   = "deliverInvoiceUrl";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Booking ID")
+    long bookingId;
+
+    @Label("Bookings")
+    int bookingCount;
+
+    public BookingApiEvent(String operation, Long bookingId) {
+        this.operation = operation;
+        this.bookingId = bookingId != null ? bookingId : 0;
+    }
+
+    public void setBookingCount(int bookingCount) {
+        this.bookingCount = bookingCount;
+    }
+}
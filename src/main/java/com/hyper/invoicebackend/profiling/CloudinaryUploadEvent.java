@@ -0,0 +1,24 @@
+package com.hyper.invoicebackend.profiling;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.hyper.invoice.CloudinaryUpload")
+@Label("Cloudinary Upload")
+@Description("PDF upload to Cloudinary, including network time")
+public class CloudinaryUploadEvent extends PipelineEvent {
+
+    @Label("Invoice Number")
+    String invoiceNumber;
+
+    @Label("Upload Size")
+    @DataAmount
+    long bytes;
+
+    public CloudinaryUploadEvent(String invoiceNumber, long bytes) {
+        this.invoiceNumber = invoiceNumber;
+        this.bytes = bytes;
+    }
+}
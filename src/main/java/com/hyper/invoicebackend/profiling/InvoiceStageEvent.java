@@ -0,0 +1,51 @@
+package com.hyper.invoicebackend.profiling;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.hyper.invoice.InvoiceStage")
+@Label("Invoice Stage")
+@Description("One step of InvoiceService's generation flow")
+public class InvoiceStageEvent extends PipelineEvent {
+
+    public static final String GENERATE = "generate";
+    public static final String FETCH    = "fetch";
+    public static final String NUMBER   = "number";
+    public static final String MODEL    = "model";
+    public static final String RENDER   = "render";
+    public static final String UPLOAD   = "upload";
+    public static final String DELIVER  = "deliver";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Booking ID")
+    long bookingId;
+
+    @Label("Invoice Number")
+    String invoiceNumber;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    public InvoiceStageEvent(String stage, Long bookingId) {
+        this.stage = stage;
+        this.bookingId = bookingId != null ? bookingId : 0;
+    }
+
+    public InvoiceStageEvent(String stage, Long bookingId, String invoiceNumber) {
+        this(stage, bookingId);
+        this.invoiceNumber = invoiceNumber;
+    }
+
+    public void setInvoiceNumber(String invoiceNumber) {
+        this.invoiceNumber = invoiceNumber;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hyper.invoicebackend.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * GET /actuator/jfr?seconds=30&amp;settings=default
+ * Runs a Java Flight Recorder recording on the live process for the requested time (capped at
+ * {@code profiling.jfr.max-duration}) and returns the {@code .jfr} file. {@code settings} is one of
+ * the JDK's built-in configurations: {@code default} (low overhead, safe in production) or
+ * {@code profile}. The pipeline events in this package are always included; events that would
+ * capture environment variables, system properties or JVM arguments are always left out.
+ * <p>
+ * One recording at a time; concurrent requests get 429. Access is guarded by
+ * {@link com.hyper.invoicebackend.security.ManagementTokenFilter}.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final List<String> SETTINGS = List.of("default", "profile");
+    /** Startup snapshots that carry environment variables, system properties and command-line arguments — i.e. secrets. */
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+    private static final List<Class<? extends PipelineEvent>> PIPELINE_EVENTS = List.of(
+            InvoiceStageEvent.class, PdfRenderEvent.class, CloudinaryUploadEvent.class, BookingApiEvent.class);
+
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final Semaphore recordingSlot = new Semaphore(1);
+
+    public JfrRecordingEndpoint(
+            @Value("${profiling.jfr.default-duration:30s}") Duration defaultDuration,
+            @Value("${profiling.jfr.max-duration:120s}") Duration maxDuration) {
+        this.defaultDuration = defaultDuration;
+        this.maxDuration = maxDuration;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(@Nullable Integer seconds, @Nullable String settings) {
+        String settingsName = settings != null ? settings : "default";
+        if (!SETTINGS.contains(settingsName)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Duration duration = seconds != null ? Duration.ofSeconds(Math.max(1, seconds)) : defaultDuration;
+        if (duration.compareTo(maxDuration) > 0) {
+            duration = maxDuration;
+        }
+        if (!recordingSlot.tryAcquire()) {
+            log.warn("[JfrRecordingEndpoint] Rejected recording request | another recording is in progress");
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        try {
+            return new WebEndpointResponse<>(new ByteArrayResource(record(duration, settingsName)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        } catch (IOException | ParseException e) {
+            log.error("[JfrRecordingEndpoint] Recording FAILED | error: {}", e.getMessage(), e);
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        } finally {
+            recordingSlot.release();
+        }
+    }
+
+    private byte[] record(Duration duration, String settingsName)
+            throws IOException, ParseException, InterruptedException {
+        log.info("[JfrRecordingEndpoint] Starting JFR recording | duration: {}, settings: {}", duration, settingsName);
+        Path file = Files.createTempFile("invoice-profile-", ".jfr");
+        try (Recording recording = new Recording(Configuration.getConfiguration(settingsName))) {
+            recording.setName("invoice-on-demand");
+            PIPELINE_EVENTS.forEach(recording::enable);
+            SENSITIVE_EVENTS.forEach(recording::disable);
+            recording.start();
+            try {
+                Thread.sleep(duration.toMillis());
+            } finally {
+                recording.stop();
+            }
+            recording.dump(file);
+            byte[] jfr = Files.readAllBytes(file);
+            log.info("[JfrRecordingEndpoint] JFR recording complete | duration: {}, size: {} bytes (~{} KB)",
+                    duration, jfr.length, jfr.length / 1024);
+            return jfr;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hyper.invoicebackend.profiling;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.hyper.invoice.PdfRender")
+@Label("PDF Render")
+@Description("Template rendering/parsing or HTML-to-PDF conversion in PdfGeneratorService")
+public class PdfRenderEvent extends PipelineEvent {
+
+    public static final String TEMPLATE = "template";
+    public static final String CONVERT  = "convert";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Template")
+    String template;
+
+    @Label("HTML Characters")
+    long htmlChars;
+
+    @Label("PDF Size")
+    @DataAmount
+    long pdfBytes;
+
+    public PdfRenderEvent(String phase, String template) {
+        this.phase = phase;
+        this.template = template;
+    }
+
+    public void setHtmlChars(long htmlChars) {
+        this.htmlChars = htmlChars;
+    }
+
+    public void setPdfBytes(long pdfBytes) {
+        this.pdfBytes = pdfBytes;
+    }
+}
@@ -0,0 +1,31 @@
+package com.hyper.invoicebackend.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base for the invoice pipeline's JFR events. Events are timed from creation to {@link #close()},
+ * so stages are wrapped in try-with-resources and failed stages are still recorded with
+ * {@code success = false}. When no recording is running, creating and closing an event costs
+ * next to nothing.
+ */
+@Category({"HyperInvoice", "Pipeline"})
+public abstract class PipelineEvent extends Event implements AutoCloseable {
+
+    @Label("Success")
+    protected boolean success;
+
+    protected PipelineEvent() {
+        begin();
+    }
+
+    public void succeeded() {
+        success = true;
+    }
+
+    @Override
+    public void close() {
+        commit();
+    }
+}
@@ -0,0 +1,65 @@
+package com.hyper.invoicebackend.render;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Binary framing between the API process and its render workers, over the worker's stdin/stdout.
+ * <pre>
+ *   frame := type:u8  id:i32  length:i32  payload:byte[length]
+ * </pre>
+ * Requests: {@link #RENDER} (payload: UTF-8 XHTML), {@link #PING}, {@link #SHUTDOWN}.
+ * Responses echo the request id: {@link #OK} (payload: PDF), {@link #ERROR} (payload: UTF-8 message),
+ * {@link #PONG}. On startup a worker sends one {@link #READY} frame with id {@link #MAGIC} and the
+ * protocol version as its single payload byte.
+ */
+final class RenderProtocol {
+
+    static final int MAGIC = 0x48495257; // "HIRW"
+    static final byte VERSION = 1;
+
+    static final byte RENDER   = 1;
+    static final byte PING     = 2;
+    static final byte SHUTDOWN = 3;
+
+    static final byte READY = 10;
+    static final byte OK    = 11;
+    static final byte PONG  = 12;
+    static final byte ERROR = 13;
+
+    static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Upper bound on a frame payload, well above a real statement (tens to hundreds of KB of XHTML,
+     * a few MB of PDF) and small enough that reading one can't exhaust the API heap; a larger length
+     * means the stream is out of sync.
+     */
+    static final int MAX_PAYLOAD = 16 * 1024 * 1024;
+
+    private RenderProtocol() {
+    }
+
+    record Frame(byte type, int id, byte[] payload) {}
+
+    static void write(DataOutputStream out, byte type, int id, byte[] payload) throws IOException {
+        out.writeByte(type);
+        out.writeInt(id);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    /** @throws java.io.EOFException if the other side closed the stream */
+    static Frame read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        int id = in.readInt();
+        int length = in.readInt();
+        if (length < 0 || length > MAX_PAYLOAD) {
+            throw new IOException("Corrupt render frame: payload length " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(type, id, payload);
+    }
+}
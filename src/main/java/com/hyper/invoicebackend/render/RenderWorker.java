@@ -0,0 +1,152 @@
+package com.hyper.invoicebackend.render;
+
+import com.hyper.invoicebackend.exception.PdfGenerationException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parent-side handle of one render worker process. Not thread-safe: {@link RenderWorkerPool} hands
+ * each worker to one caller at a time through its idle queue. Any {@link IOException} means the process is dead or out of sync and
+ * must be {@link #restart restarted}.
+ */
+@Slf4j
+final class RenderWorker {
+
+    private final String name;
+    private final List<String> command;
+    private final Duration startupTimeout;
+    private final ScheduledExecutorService watchdog;
+
+    private Process process;
+    private DataInputStream in;
+    private DataOutputStream out;
+    private boolean ready;
+    private int nextId;
+
+    RenderWorker(String name, List<String> command, Duration startupTimeout, ScheduledExecutorService watchdog) {
+        this.name = name;
+        this.command = command;
+        this.startupTimeout = startupTimeout;
+        this.watchdog = watchdog;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void start() throws IOException {
+        process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        ready = false;
+        log.info("[RenderWorker] {} started | pid: {}", name, process.pid());
+    }
+
+    boolean isAlive() {
+        return process != null && process.isAlive();
+    }
+
+    /**
+     * @throws PdfGenerationException if the worker rendered but the document failed (worker stays usable)
+     * @throws IOException            if the worker died, timed out or broke protocol
+     */
+    byte[] render(byte[] xhtml, Duration timeout) throws IOException {
+        RenderProtocol.Frame response = call(RenderProtocol.RENDER, xhtml, timeout);
+        if (response.type() == RenderProtocol.ERROR) {
+            throw new PdfGenerationException("Render worker " + name + " failed: "
+                    + new String(response.payload(), StandardCharsets.UTF_8));
+        }
+        expect(response, RenderProtocol.OK);
+        return response.payload();
+    }
+
+    void ping(Duration timeout) throws IOException {
+        expect(call(RenderProtocol.PING, RenderProtocol.EMPTY, timeout), RenderProtocol.PONG);
+    }
+
+    void restart() {
+        stop();
+        try {
+            start();
+        } catch (IOException e) {
+            log.error("[RenderWorker] {} could not be restarted | error: {}", name, e.getMessage());
+        }
+    }
+
+    void stop() {
+        if (process == null) {
+            return;
+        }
+        if (process.isAlive()) {
+            try {
+                RenderProtocol.write(out, RenderProtocol.SHUTDOWN, 0, RenderProtocol.EMPTY);
+                if (!process.waitFor(2, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (IOException e) {
+                process.destroyForcibly();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        process = null;
+    }
+
+    private RenderProtocol.Frame call(byte type, byte[] payload, Duration timeout) throws IOException {
+        if (!isAlive()) {
+            throw new IOException("Render worker " + name + " is not running");
+        }
+        if (!ready) {
+            RenderProtocol.Frame hello = read(startupTimeout);
+            if (hello.type() != RenderProtocol.READY || hello.id() != RenderProtocol.MAGIC
+                    || hello.payload().length != 1 || hello.payload()[0] != RenderProtocol.VERSION) {
+                throw new IOException("Render worker " + name + " sent an unexpected handshake");
+            }
+            ready = true;
+        }
+        int id = ++nextId;
+        RenderProtocol.write(out, type, id, payload);
+        RenderProtocol.Frame response = read(timeout);
+        if (response.id() != id) {
+            throw new IOException("Render worker " + name + " answered request " + response.id() + ", expected " + id);
+        }
+        return response;
+    }
+
+    /** Blocking read bounded by killing the process, which unblocks the read with an EOF. */
+    private RenderProtocol.Frame read(Duration timeout) throws IOException {
+        Process target = process;
+        ScheduledFuture<?> kill = watchdog.schedule(() -> {
+            log.warn("[RenderWorker] {} did not answer within {}, killing pid {}", name, timeout, target.pid());
+            target.destroyForcibly();
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            return RenderProtocol.read(in);
+        } catch (EOFException e) {
+            throw new EOFException("Render worker " + name + " exited (pid " + target.pid() + ")");
+        } finally {
+            kill.cancel(false);
+        }
+    }
+
+    private void expect(RenderProtocol.Frame response, byte type) throws IOException {
+        if (response.type() != type) {
+            throw new IOException("Render worker " + name + " sent frame type " + response.type() + ", expected " + type);
+        }
+    }
+}
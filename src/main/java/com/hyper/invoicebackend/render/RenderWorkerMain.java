@@ -0,0 +1,95 @@
+package com.hyper.invoicebackend.render;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Entry point of a render worker JVM, started by {@link RenderWorkerPool}. Reads {@link RenderProtocol}
+ * frames from stdin, renders one document at a time and answers on stdout. Logs go to stderr.
+ * Exits when stdin closes (parent gone) or on {@link RenderProtocol#SHUTDOWN}.
+ */
+public final class RenderWorkerMain {
+
+    private static final String WARM_UP_DOCUMENT = "<html><head><style>body { font-family: Arial; }</style></head>"
+            + "<body><table><tr><td>warm-up</td></tr></table></body></html>";
+
+    private RenderWorkerMain() {
+    }
+
+    public static void main(String[] args) {
+        // stdout carries the protocol; anything printed by libraries must not land there
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err);
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        Logger log = (Logger) LoggerFactory.getLogger(RenderWorkerMain.class);
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+
+        // Load fonts and renderer classes before taking work
+        try {
+            render(WARM_UP_DOCUMENT.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("[RenderWorkerMain] Warm-up render failed | error: {}", e.getMessage());
+        }
+        try {
+            RenderProtocol.write(out, RenderProtocol.READY, RenderProtocol.MAGIC, new byte[]{RenderProtocol.VERSION});
+            serve(in, out, log);
+        } catch (IOException e) {
+            // parent closed the pipes; nothing left to answer
+        }
+    }
+
+    private static void serve(DataInputStream in, DataOutputStream out, Logger log) throws IOException {
+        while (true) {
+            RenderProtocol.Frame frame;
+            try {
+                frame = RenderProtocol.read(in);
+            } catch (EOFException e) {
+                return;
+            }
+            switch (frame.type()) {
+                case RenderProtocol.PING -> RenderProtocol.write(out, RenderProtocol.PONG, frame.id(), RenderProtocol.EMPTY);
+                case RenderProtocol.SHUTDOWN -> {
+                    return;
+                }
+                case RenderProtocol.RENDER -> {
+                    byte[] response;
+                    byte type;
+                    try {
+                        response = render(frame.payload());
+                        type = RenderProtocol.OK;
+                    } catch (Exception e) {
+                        log.warn("[RenderWorkerMain] Render FAILED | id: {}, error: {}", frame.id(), e.getMessage());
+                        response = String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8);
+                        type = RenderProtocol.ERROR;
+                    }
+                    RenderProtocol.write(out, type, frame.id(), response);
+                }
+                default -> RenderProtocol.write(out, RenderProtocol.ERROR, frame.id(),
+                        ("Unknown frame type " + frame.type()).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static byte[] render(byte[] xhtml) throws Exception {
+        byte[] pdf = XhtmlPdfConverter.toPdf(XhtmlPdfConverter.parse(new InputSource(new ByteArrayInputStream(xhtml))));
+        if (pdf.length > RenderProtocol.MAX_PAYLOAD) {
+            throw new IllegalStateException("PDF of " + pdf.length + " bytes exceeds the " + RenderProtocol.MAX_PAYLOAD + "-byte frame limit");
+        }
+        return pdf;
+    }
+}
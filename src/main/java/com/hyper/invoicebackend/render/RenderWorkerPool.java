@@ -0,0 +1,217 @@
+package com.hyper.invoicebackend.render;
+
+import com.hyper.invoicebackend.config.RenderWorkerProperties;
+import com.hyper.invoicebackend.exception.DependencyUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional pool of child JVMs ({@link RenderWorkerMain}) doing the HTML-to-PDF conversion, so the
+ * renderer's allocation churn and any crash or runaway document stay out of the API process heap.
+ * Documents go to whichever worker frees up first over {@link RenderProtocol}; a worker that dies,
+ * hangs past {@code render-timeout} or fails a periodic ping is restarted, and its document is retried
+ * once on another worker. When every worker stays busy for {@code acquire-timeout}, the render is
+ * rejected (503) like a full bulkhead. Disabled unless {@code render.workers.enabled=true}.
+ */
+@Slf4j
+@Component
+public class RenderWorkerPool {
+
+    public static final String DEPENDENCY = "renderWorkers";
+
+    private static final String PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private final RenderWorkerProperties properties;
+    private final List<RenderWorker> workers = new ArrayList<>();
+    /** Workers not currently rendering or being health-checked; taking one from here is the only way to use it. */
+    private final BlockingQueue<RenderWorker> idle = new LinkedBlockingQueue<>();
+    /** Enforces read timeouts; separate from the health checker, whose pings it also has to time out. */
+    private final ScheduledExecutorService watchdog;
+    private final ScheduledExecutorService healthChecker;
+
+    private final Counter crashes;
+    private final Counter restarts;
+
+    public RenderWorkerPool(RenderWorkerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.crashes = Counter.builder("render.workers.crashes")
+                .description("Renders lost to a worker that died, hung or broke protocol")
+                .register(meterRegistry);
+        this.restarts = Counter.builder("render.workers.restarts")
+                .description("Render worker processes restarted")
+                .register(meterRegistry);
+
+        if (!properties.isEnabled()) {
+            watchdog = null;
+            healthChecker = null;
+            log.info("[RenderWorkerPool] Out-of-process rendering DISABLED | converting PDFs in-process");
+            return;
+        }
+        watchdog = daemonScheduler("render-worker-watchdog");
+        healthChecker = daemonScheduler("render-worker-health");
+        List<String> command = workerCommand();
+        for (int i = 1; i <= properties.getCount(); i++) {
+            RenderWorker worker = new RenderWorker("render-worker-" + i, command, properties.getStartupTimeout(), watchdog);
+            try {
+                worker.start();
+            } catch (IOException e) {
+                // left dead; the health check keeps trying
+                log.error("[RenderWorkerPool] {} failed to start | error: {}", worker.name(), e.getMessage());
+            }
+            workers.add(worker);
+            idle.add(worker);
+        }
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("[RenderWorkerPool] Out-of-process rendering ENABLED | workers: {}, renderTimeout: {}, jvmOptions: {}, main: {}",
+                workers.size(), properties.getRenderTimeout(), properties.getJvmOptions(), command.get(command.size() - 1));
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean isFallbackInProcess() {
+        return properties.isFallbackInProcess();
+    }
+
+    /**
+     * Converts an XHTML document to PDF on a worker process.
+     *
+     * @throws com.hyper.invoicebackend.exception.PdfGenerationException if the document itself failed to render
+     * @throws RenderWorkerUnavailableException if the document is too large for a worker frame, or was lost
+     *                                          to worker crashes twice
+     * @throws DependencyUnavailableException   if no worker was free within {@code acquire-timeout}
+     */
+    public byte[] render(byte[] xhtml, String label) {
+        if (xhtml.length > RenderProtocol.MAX_PAYLOAD) {
+            throw new RenderWorkerUnavailableException("'" + label + "' is " + xhtml.length
+                    + " bytes of XHTML, over the " + RenderProtocol.MAX_PAYLOAD + "-byte worker frame limit", null);
+        }
+        IOException lastCrash = null;
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            RenderWorker worker = acquire();
+            try {
+                long start = System.currentTimeMillis();
+                byte[] pdf = worker.render(xhtml, properties.getRenderTimeout());
+                log.debug("[RenderWorkerPool] '{}' rendered on {} in {} ms | {} bytes XHTML -> {} bytes PDF",
+                        label, worker.name(), System.currentTimeMillis() - start, xhtml.length, pdf.length);
+                return pdf;
+            } catch (IOException e) {
+                lastCrash = e;
+                crashes.increment();
+                log.warn("[RenderWorkerPool] {} lost '{}' (attempt {}), restarting it | error: {}",
+                        worker.name(), label, attempt, e.getMessage());
+                restart(worker);
+            } finally {
+                idle.add(worker);
+            }
+        }
+        throw new RenderWorkerUnavailableException("Render workers crashed twice on '" + label + "'", lastCrash);
+    }
+
+    /** Next idle worker, waiting up to {@code acquire-timeout} for any of them to be released. */
+    private RenderWorker acquire() {
+        try {
+            RenderWorker worker = idle.poll(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (worker != null) {
+                return worker;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("[RenderWorkerPool] All {} workers busy for {}, rejecting render", workers.size(), properties.getAcquireTimeout());
+        throw new DependencyUnavailableException(DEPENDENCY, "all " + workers.size() + " render workers busy for "
+                + properties.getAcquireTimeout(), 1, null);
+    }
+
+    // ── Health ───────────────────────────────────────────────────────────────
+
+    private void checkHealth() {
+        // only workers idle right now; busy ones are covered by the render timeout
+        for (int i = workers.size(); i > 0; i--) {
+            RenderWorker worker = idle.poll();
+            if (worker == null) {
+                return;
+            }
+            try {
+                if (!worker.isAlive()) {
+                    log.warn("[RenderWorkerPool] {} is not running, restarting", worker.name());
+                    restart(worker);
+                    continue;
+                }
+                worker.ping(properties.getPingTimeout());
+            } catch (IOException e) {
+                log.warn("[RenderWorkerPool] {} failed health check, restarting | error: {}", worker.name(), e.getMessage());
+                restart(worker);
+            } catch (RuntimeException e) {
+                log.error("[RenderWorkerPool] Health check of {} FAILED | error: {}", worker.name(), e.getMessage(), e);
+            } finally {
+                idle.add(worker);
+            }
+        }
+    }
+
+    private void restart(RenderWorker worker) {
+        worker.restart();
+        restarts.increment();
+    }
+
+    // ── Launch command ───────────────────────────────────────────────────────
+
+    /**
+     * Same JVM binary and classpath as this process. From the packaged fat jar the worker main class
+     * is started through Spring Boot's PropertiesLauncher, which sets up the nested-jar classpath.
+     */
+    private List<String> workerCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        Arrays.stream(properties.getJvmOptions().trim().split("\\s+"))
+                .filter(option -> !option.isEmpty())
+                .forEach(command::add);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        URL self = RenderWorkerMain.class.getResource(RenderWorkerMain.class.getSimpleName() + ".class");
+        if (self != null && self.toString().contains("BOOT-INF/classes")) {
+            command.add("-Dloader.main=" + RenderWorkerMain.class.getName());
+            command.add(PROPERTIES_LAUNCHER);
+        } else {
+            command.add(RenderWorkerMain.class.getName());
+        }
+        return command;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        workers.forEach(RenderWorker::stop);
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
+
+    private static ScheduledExecutorService daemonScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
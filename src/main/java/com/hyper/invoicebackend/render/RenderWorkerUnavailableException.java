@@ -0,0 +1,12 @@
+package com.hyper.invoicebackend.render;
+
+/**
+ * The render workers could not finish a document (crashed twice, or too large for a frame); the caller may
+ * convert in-process. A busy pool is reported as a {@link com.hyper.invoicebackend.exception.DependencyUnavailableException}.
+ */
+public class RenderWorkerUnavailableException extends RuntimeException {
+
+    public RenderWorkerUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,52 @@
+package com.hyper.invoicebackend.render;
+
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * XHTML parsing and HTML-to-PDF conversion settings shared by in-process rendering
+ * ({@code PdfGeneratorService}) and the out-of-process render workers ({@link RenderWorkerMain}),
+ * so both produce the same PDF for the same markup.
+ */
+public final class XhtmlPdfConverter {
+
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = newDocumentBuilderFactory();
+
+    private XhtmlPdfConverter() {
+    }
+
+    public static Document parse(InputSource source) throws Exception {
+        return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder().parse(source);
+    }
+
+    public static byte[] toPdf(Document document) throws Exception {
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
+            builder.withW3cDocument(document, null);
+            builder.toStream(outputStream);
+            builder.run();
+            return outputStream.toByteArray();
+        }
+    }
+
+    private static DocumentBuilderFactory newDocumentBuilderFactory() {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setValidating(false);
+        try {
+            // Rendered templates never reference external DTDs or entities
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Could not configure XML parser features", e);
+        }
+        return factory;
+    }
+}
@@ -0,0 +1,62 @@
+package com.hyper.invoicebackend.resilience;
+
+import com.hyper.invoicebackend.exception.DependencyUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker + bulkhead pair guarding one outbound dependency.
+ * The breaker sits outside the bulkhead, so an open circuit rejects calls without taking a slot.
+ */
+public class DependencyGuard {
+
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final long retryAfterSeconds;
+
+    DependencyGuard(String name, CircuitBreaker circuitBreaker, Bulkhead bulkhead, long retryAfterSeconds) {
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Runs {@code call} through the bulkhead and circuit breaker.
+     *
+     * @throws DependencyUnavailableException if the circuit is open or the bulkhead is full
+     */
+    public <T> T call(Supplier<T> call) {
+        Supplier<T> guarded = CircuitBreaker.decorateSupplier(circuitBreaker,
+                Bulkhead.decorateSupplier(bulkhead, call));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException e) {
+            throw new DependencyUnavailableException(name, "circuit breaker is " + circuitBreaker.getState(),
+                    retryAfterSeconds, e);
+        } catch (BulkheadFullException e) {
+            throw new DependencyUnavailableException(name, "too many concurrent calls (max "
+                    + bulkhead.getBulkheadConfig().getMaxConcurrentCalls() + ")", 1, e);
+        }
+    }
+
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+}
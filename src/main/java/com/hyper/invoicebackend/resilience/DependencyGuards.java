@@ -0,0 +1,95 @@
+package com.hyper.invoicebackend.resilience;
+
+import com.hyper.invoicebackend.config.ResilienceProperties;
+import com.hyper.invoicebackend.exception.ResourceNotFoundException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link DependencyGuard} per outbound dependency, each with its own circuit breaker and
+ * bulkhead so an outage in one cannot exhaust request threads needed by the other.
+ * Breaker state, call outcomes and bulkhead saturation are published to Micrometer
+ * ({@code resilience4j.*}), plus a {@code invoice.dependency.circuit.transitions} counter.
+ */
+@Slf4j
+@Component
+public class DependencyGuards {
+
+    public static final String BOOKING_API = "bookingApi";
+    public static final String CLOUDINARY = "cloudinary";
+
+    private final DependencyGuard bookingApi;
+    private final DependencyGuard cloudinary;
+
+    public DependencyGuards(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+        BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+
+        this.bookingApi = create(BOOKING_API, properties.getBookingApi(), circuitBreakers, bulkheads, meterRegistry);
+        this.cloudinary = create(CLOUDINARY, properties.getCloudinary(), circuitBreakers, bulkheads, meterRegistry);
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    public DependencyGuard bookingApi() {
+        return bookingApi;
+    }
+
+    public DependencyGuard cloudinary() {
+        return cloudinary;
+    }
+
+    private DependencyGuard create(String name, ResilienceProperties.Dependency settings,
+                                   CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                                   MeterRegistry meterRegistry) {
+        CircuitBreakerConfig breakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallDuration())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // A missing booking or a saturated bulkhead says nothing about the dependency's health
+                .ignoreExceptions(ResourceNotFoundException.class, BulkheadFullException.class)
+                .build();
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+                .maxWaitDuration(settings.getMaxWaitDuration())
+                .build();
+
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(name, breakerConfig);
+        Bulkhead bulkhead = bulkheads.bulkhead(name, bulkheadConfig);
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("[DependencyGuards] Circuit '{}' transitioned {}", name, event.getStateTransition());
+            meterRegistry.counter("invoice.dependency.circuit.transitions",
+                    "name", name,
+                    "from", event.getStateTransition().getFromState().name(),
+                    "to", event.getStateTransition().getToState().name()).increment();
+        });
+        bulkhead.getEventPublisher().onCallRejected(event ->
+                log.warn("[DependencyGuards] Bulkhead '{}' full, rejected call | maxConcurrentCalls: {}",
+                        name, settings.getMaxConcurrentCalls()));
+
+        log.info("[DependencyGuards] Guard '{}' initialized | failureRate: {}%, slowCallRate: {}% over {}, window: {}, openFor: {}, halfOpenProbes: {}, maxConcurrent: {}",
+                name, settings.getFailureRateThreshold(), settings.getSlowCallRateThreshold(),
+                settings.getSlowCallDuration(), settings.getSlidingWindowSize(),
+                settings.getWaitDurationInOpenState(), settings.getPermittedCallsInHalfOpenState(),
+                settings.getMaxConcurrentCalls());
+        return new DependencyGuard(name, circuitBreaker, bulkhead,
+                Math.max(1, settings.getWaitDurationInOpenState().toSeconds()));
+    }
+}
@@ -0,0 +1,176 @@
+package com.hyper.invoicebackend.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hyper.invoicebackend.dto.BookingResponse;
+import com.hyper.invoicebackend.exception.InvalidRequestException;
+import com.hyper.invoicebackend.exception.InvalidSignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Authenticates booking payloads pushed by the booking service.
+ * <p>
+ * The sender signs {@code <timestamp>.<template>.<raw body>} with HMAC-SHA256 using the shared
+ * {@code booking.push.secret}, where {@code template} is the {@code ?template=} query value (empty when
+ * absent), and sends the epoch-seconds timestamp in {@value #TIMESTAMP_HEADER} and the hex digest in
+ * {@value #SIGNATURE_HEADER} (optionally prefixed {@code sha256=}).
+ * Timestamps further than {@code booking.push.max-clock-skew} from now are rejected, and a signature
+ * is accepted only once within that window, so a captured request cannot be replayed. A signature is
+ * recorded only once its body parses, and {@link #release released} again when generating the invoice
+ * fails, so the sender may retry a failed request unchanged; a retry of a request that succeeded is
+ * rejected. The seen signatures are held per node; in cluster mode pushes for a booking always reach
+ * the same node.
+ */
+@Slf4j
+@Component
+public class BookingPushVerifier {
+
+    public static final String TIMESTAMP_HEADER = "X-Hyper-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Hyper-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SIGNATURE_PREFIX = "sha256=";
+
+    private final byte[] secret;
+    private final Duration maxClockSkew;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    /** Accepted signatures (hex) → epoch second after which their timestamp is rejected anyway. */
+    private final Map<String, Long> seenSignatures = new HashMap<>();
+
+    @Autowired
+    public BookingPushVerifier(
+            ObjectMapper objectMapper,
+            @Value("${booking.push.secret:}") String secret,
+            @Value("${booking.push.max-clock-skew:5m}") Duration maxClockSkew) {
+        this(objectMapper, secret, maxClockSkew, Clock.systemUTC());
+    }
+
+    BookingPushVerifier(ObjectMapper objectMapper, String secret, Duration maxClockSkew, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.maxClockSkew = maxClockSkew;
+        this.clock = clock;
+        log.info("[BookingPushVerifier] Push mode {} | maxClockSkew: {}",
+                secret.isBlank() ? "DISABLED (no booking.push.secret)" : "ENABLED", maxClockSkew);
+    }
+
+    /**
+     * Checks the signature over the raw request body and only then deserializes it.
+     *
+     * @param template the {@code ?template=} query value, covered by the signature; may be null
+     * @throws InvalidSignatureException if push mode is disabled, the signature/timestamp does not verify,
+     *                                   or the request was already accepted once (and not released)
+     * @throws InvalidRequestException   if the signed body is not a valid booking payload; the signature
+     *                                   is not recorded
+     */
+    public BookingResponse verify(byte[] body, String timestamp, String signature, String template) {
+        if (secret.length == 0) {
+            throw new InvalidSignatureException("Push mode is not enabled");
+        }
+        if (timestamp == null || signature == null) {
+            throw new InvalidSignatureException("Missing " + TIMESTAMP_HEADER + " or " + SIGNATURE_HEADER + " header");
+        }
+
+        long sentAt;
+        try {
+            sentAt = Long.parseLong(timestamp.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidSignatureException("Malformed " + TIMESTAMP_HEADER + " header");
+        }
+        long skewSeconds = Math.abs(clock.instant().getEpochSecond() - sentAt);
+        if (skewSeconds > maxClockSkew.toSeconds()) {
+            log.warn("[BookingPushVerifier] Rejected push | timestamp {} is {} s from now", sentAt, skewSeconds);
+            throw new InvalidSignatureException("Request timestamp outside the allowed window");
+        }
+
+        byte[] expected = sign(timestamp.trim(), template, body);
+        byte[] provided;
+        try {
+            String hex = signature.trim();
+            provided = HexFormat.of().parseHex(hex.startsWith(SIGNATURE_PREFIX) ? hex.substring(SIGNATURE_PREFIX.length()) : hex);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSignatureException("Malformed " + SIGNATURE_HEADER + " header");
+        }
+        if (!MessageDigest.isEqual(expected, provided)) {
+            log.warn("[BookingPushVerifier] Rejected push | signature mismatch, body: {} bytes", body.length);
+            throw new InvalidSignatureException("Invalid request signature");
+        }
+
+        BookingResponse booking;
+        try {
+            booking = objectMapper.readValue(body, BookingResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Malformed booking payload: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new InvalidRequestException("Unreadable booking payload: " + e.getMessage());
+        }
+        if (booking == null) {
+            throw new InvalidRequestException("Booking payload is empty");
+        }
+        if (!markSeen(HexFormat.of().formatHex(expected), sentAt + maxClockSkew.toSeconds())) {
+            log.warn("[BookingPushVerifier] Rejected push | replayed signature, timestamp {}", sentAt);
+            throw new InvalidSignatureException("Request already processed");
+        }
+        return booking;
+    }
+
+    /**
+     * Forgets a signature accepted by {@link #verify}, so the identical request can be sent again.
+     * Called when generating the invoice for it failed.
+     */
+    public void release(String signature) {
+        byte[] provided;
+        try {
+            String hex = signature.trim();
+            provided = HexFormat.of().parseHex(hex.startsWith(SIGNATURE_PREFIX) ? hex.substring(SIGNATURE_PREFIX.length()) : hex);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        synchronized (seenSignatures) {
+            seenSignatures.remove(HexFormat.of().formatHex(provided));
+        }
+    }
+
+    /** @return false if the signature was already accepted within its validity window */
+    private boolean markSeen(String signature, long expiresAt) {
+        long now = clock.instant().getEpochSecond();
+        synchronized (seenSignatures) {
+            seenSignatures.values().removeIf(expiry -> expiry < now);
+            return seenSignatures.putIfAbsent(signature, expiresAt) == null;
+        }
+    }
+
+    /**
+     * HMAC-SHA256 of {@code <timestamp>.<template>.<body>} (template empty when null);
+     * also what the booking service computes when signing.
+     */
+    public byte[] sign(String timestamp, String template, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            mac.update(timestamp.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) '.');
+            mac.update((template != null ? template : "").getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) '.');
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
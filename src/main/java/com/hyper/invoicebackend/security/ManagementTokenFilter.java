@@ -0,0 +1,63 @@
+package com.hyper.invoicebackend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards the on-demand profiling endpoint ({@code /actuator/jfr}): requests must carry
+ * {@value #TOKEN_HEADER} matching {@code profiling.jfr.token}. With no token configured the
+ * endpoint is refused outright. Other actuator endpoints (health, metrics) are untouched.
+ */
+@Slf4j
+@Component
+public class ManagementTokenFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "X-Management-Token";
+
+    /** Decoded, with {@code ;} path parameters and duplicate slashes removed, as Spring's request matching sees it. */
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final String protectedPath;
+    private final byte[] token;
+
+    public ManagementTokenFilter(
+            @Value("${management.endpoints.web.base-path:/actuator}") String actuatorBasePath,
+            @Value("${profiling.jfr.token:}") String token) {
+        this.protectedPath = actuatorBasePath + "/jfr";
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Raw getRequestURI() would let "/actuator/jfr;x=1" through, which still maps to the endpoint
+        return !PATH_HELPER.getPathWithinApplication(request).startsWith(protectedPath);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (token.length == 0) {
+            log.warn("[ManagementTokenFilter] Refused {} | profiling.jfr.token is not configured", request.getRequestURI());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Profiling endpoint is disabled");
+            return;
+        }
+        String provided = request.getHeader(TOKEN_HEADER);
+        if (provided == null || !MessageDigest.isEqual(token, provided.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("[ManagementTokenFilter] Refused {} | missing or invalid {}", request.getRequestURI(), TOKEN_HEADER);
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid management token");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
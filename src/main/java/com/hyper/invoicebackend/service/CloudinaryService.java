@@ -3,6 +3,9 @@ package com.hyper.invoicebackend.service;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import com.hyper.invoicebackend.exception.CloudinaryUploadException;
+import com.hyper.invoicebackend.exception.DependencyUnavailableException;
+import com.hyper.invoicebackend.profiling.CloudinaryUploadEvent;
+import com.hyper.invoicebackend.resilience.DependencyGuards;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,6 +18,7 @@ import java.util.Map;
 public class CloudinaryService {
 
     private final Cloudinary cloudinary;
+    private final DependencyGuards dependencyGuards;
 
     /**
      * Uploads a PDF (as byte array) to Cloudinary as a raw file.
@@ -22,15 +26,20 @@ public class CloudinaryService {
      * @param pdfBytes  the PDF content as byte array
      * @param publicId  the public ID / filename for Cloudinary (without extension)
      * @return the secure URL of the uploaded file
+     * @throws DependencyUnavailableException if the Cloudinary circuit is open or its bulkhead is full
      */
-    @SuppressWarnings("unchecked")
     public String uploadPdf(byte[] pdfBytes, String publicId) {
+        return dependencyGuards.cloudinary().call(() -> upload(pdfBytes, publicId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private String upload(byte[] pdfBytes, String publicId) {
         String fullPublicId = "invoices/" + publicId;
         log.info("[CloudinaryService] Starting upload | folder: 'invoices', publicId: '{}', fileSize: {} bytes (~{} KB)",
                 publicId, pdfBytes.length, pdfBytes.length / 1024);
         log.debug("[CloudinaryService] Upload params -> resource_type: raw, folder: invoices, format: pdf");
         long start = System.currentTimeMillis();
-        try {
+        try (CloudinaryUploadEvent event = new CloudinaryUploadEvent(publicId, pdfBytes.length)) {
             // For standard PDF upload (as image type), we don't need to append extension to public_id manually.
             // Cloudinary adds it on delivery.
 
@@ -61,6 +70,7 @@ public class CloudinaryService {
                 downloadUrl = secureUrl;
             }
 
+            event.succeeded();
             log.info("[CloudinaryService] Upload SUCCESS in {} ms | downloadUrl: {}", elapsed, downloadUrl);
             log.debug("[CloudinaryService] Cloudinary response details -> public_id: '{}', bytes: {}, resource_type: {}, created_at: {}",
                     publicId, bytes, resourceType, uploadedAt);
@@ -0,0 +1,297 @@
+package com.hyper.invoicebackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormatSymbols;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hand-compiled equivalent of {@code templates/invoice.html}: builds the W3C DOM for the standard
+ * invoice straight from an {@link InvoiceModel}, skipping Thymeleaf's context, expression evaluation,
+ * HTML serialization and the XML re-parse. The stylesheet is read verbatim from the template so the
+ * CSS has a single source.
+ * <p>
+ * Markup changes to {@code invoice.html} must be mirrored here; {@code FastInvoiceRendererGoldenTest}
+ * fails when the two outputs drift apart.
+ */
+@Slf4j
+@Component
+public class FastInvoiceRenderer {
+
+    static final String TEMPLATE_NAME = "invoice";
+
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+
+    private final boolean enabled;
+    private final String stylesheet;
+
+    public FastInvoiceRenderer(@Value("${invoice.render.fast-path.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.stylesheet = loadStylesheet();
+        log.info("[FastInvoiceRenderer] Compiled '{}' renderer {} | stylesheet: {} chars",
+                TEMPLATE_NAME, enabled ? "ENABLED" : "DISABLED", stylesheet.length());
+    }
+
+    public boolean supports(String templateName) {
+        return enabled && TEMPLATE_NAME.equals(templateName);
+    }
+
+    /**
+     * Builds the invoice document. Output is element-for-element what Thymeleaf produces
+     * from {@code invoice.html} for the same model, minus comments and whitespace between block
+     * elements. Whitespace around inline elements renders, so it is kept as a single space.
+     */
+    public Document render(InvoiceModel m) {
+        long start = System.nanoTime();
+        Dom d = new Dom(newDocument());
+        String title = m.documentTitle() != null ? m.documentTitle() : "Tax Invoice";
+        String issuer = m.issuerName() != null ? m.issuerName() : "HyperInvoice";
+
+        Element html = d.el(d.doc, "html");
+        Element head = d.el(html, "head");
+        d.el(head, "meta", "charset", "UTF-8");
+        d.text(head, "title", title);
+        d.text(head, "style", stylesheet);
+
+        Element body = d.el(html, "body");
+        Element page = d.el(body, "div", "class", "page");
+
+        // ── Title ─────────────────────────────────────────────────────────────
+        d.text(page, "div", title, "class", "invoice-title");
+
+        // ── Header info grid ──────────────────────────────────────────────────
+        Element grid = d.el(page, "div", "class", "info-grid");
+
+        Element left = d.el(grid, "div", "class", "info-col");
+        d.infoRow(left, "Invoice To:", m.customerName());
+        if (truthy(m.customerEmail()))   d.infoRow(left, "Email:", m.customerEmail());
+        if (truthy(m.customerPhone()))   d.infoRow(left, "Phone:", m.customerPhone());
+        if (truthy(m.customerAddress())) d.infoRow(left, "Customer Address:", m.customerAddress());
+        if (truthy(m.gstin()))           d.infoRow(left, "GSTIN:", m.gstin());
+        d.infoRow(left, "Invoice Issued By:", issuer).setAttribute("style", "margin-top: 14px;");
+        if (truthy(m.venueName()))       d.infoRow(left, "Unregistered Venue Name:", m.venueName());
+        if (truthy(m.venueGstin()))      d.infoRow(left, "Venue GSTIN:", m.venueGstin());
+        if (truthy(m.venueAddress()))    d.infoRow(left, "Address:", m.venueAddress());
+        if (truthy(m.venueState()))      d.infoRow(left, "State:", m.venueState());
+        if (truthy(m.placeOfSupply()))   d.infoRow(left, "Place of Supply:", m.placeOfSupply());
+
+        Element right = d.el(grid, "div", "class", "info-col");
+        d.infoRow(right, "Document:", m.documentType());
+        d.infoRow(right, "Invoice No:", m.invoiceNumber());
+        d.infoRow(right, "Date of Invoice:", str(m.invoiceDate()));
+        if (truthy(m.bookingReference())) d.infoRow(right, "Booking Reference:", m.bookingReference());
+        if (truthy(m.bookingId()))        d.infoRow(right, "Booking ID:", str(m.bookingId()));
+        if (truthy(m.serviceName()))      d.infoRow(right, "Service:", m.serviceName());
+        if (truthy(m.sacCode()))          d.infoRow(right, "SAC Code:", m.sacCode());
+
+        // ── Line items ────────────────────────────────────────────────────────
+        d.text(page, "div", "Service Details", "class", "section-heading");
+        List<InvoiceService.BookingLineItem> items = m.lineItems();
+        if (items != null && !items.isEmpty()) {
+            Element tbody = d.itemsTable(page, "30%", "9%", "10%");
+            int count = 0;
+            for (InvoiceService.BookingLineItem item : items) {
+                BigDecimal lineAmount = item.unitPrice().multiply(BigDecimal.valueOf(item.quantity()));
+                BigDecimal discount = item.discount() != null ? item.discount() : BigDecimal.ZERO;
+                Element tr = d.el(tbody, "tr");
+                d.text(tr, "td", String.valueOf(++count), "class", "text-center");
+                d.text(tr, "td", item.description());
+                d.text(tr, "td", item.unitOfMeasure() != null ? item.unitOfMeasure() : "Slots", "class", "text-center");
+                d.text(tr, "td", String.valueOf(item.quantity()), "class", "text-center");
+                d.text(tr, "td", decimal(item.unitPrice()), "class", "text-right");
+                d.text(tr, "td", decimal(lineAmount), "class", "text-right");
+                d.text(tr, "td", item.discount() != null ? decimal(item.discount()) : "0.00", "class", "text-right");
+                d.text(tr, "td", decimal(lineAmount.subtract(discount)), "class", "text-right text-bold");
+            }
+        } else {
+            Element tbody = d.itemsTable(page, "35%", "7%", "7%");
+            Element tr = d.el(tbody, "tr");
+            d.text(tr, "td", "1", "class", "text-center");
+            d.text(tr, "td", "OTH");
+            d.text(tr, "td", "1", "class", "text-center");
+            d.text(tr, "td", "1", "class", "text-center");
+            d.text(tr, "td", decimal(m.amount()), "class", "text-right");
+            d.text(tr, "td", decimal(m.amount()), "class", "text-right");
+            d.text(tr, "td", decimal(m.discount()), "class", "text-right");
+            d.text(tr, "td", decimal(m.netAssessable()), "class", "text-right text-bold");
+        }
+
+        // ── Taxes & totals ────────────────────────────────────────────────────
+        Element totals = d.el(page, "div", "class", "totals-wrapper", "style", "margin-top: 0;");
+        Element words = d.el(d.el(totals, "div", "class", "totals-spacer"), "div", "class", "words-row");
+        d.space(words);
+        d.text(words, "span", "Invoice Total (in words):", "class", "label");
+        d.el(words, "br");
+        d.space(words);
+        d.text(words, "span", m.invoiceTotalInWords());
+        d.space(words);
+
+        Element table = d.el(d.el(totals, "div", "class", "totals-box"), "table", "class", "totals-table");
+        d.totalsRow(table, "Slot Subtotal", true,
+                rupees(m.slotSubtotal() != null ? m.slotSubtotal() : m.netAssessable()));
+        if (m.platformFee() != null && m.platformFee().compareTo(BigDecimal.ZERO) > 0) {
+            Element tr = d.el(table, "tr");
+            Element label = d.el(tr, "td");
+            label.appendChild(d.doc.createTextNode("Platform Fee ("));
+            d.text(label, "span", str(m.platformFeePercent()));
+            label.appendChild(d.doc.createTextNode("%)"));
+            d.text(tr, "td", rupees(m.platformFee()), "class", "text-right");
+        }
+        d.totalsRow(table, "Net Assessable Value", true, rupees(m.netAssessable()));
+        d.totalsRow(table, "GST @ 18%", false, rupees(m.gstAmount()));
+        d.totalsRow(table, "Total Taxes", true, rupees(m.gstAmount()));
+        Element totalFinal = d.el(table, "tr", "class", "total-final");
+        d.text(totalFinal, "td", "Invoice Total");
+        d.text(totalFinal, "td", rupees(m.invoiceTotal()), "class", "text-right");
+
+        // ── Footer / signature ────────────────────────────────────────────────
+        Element footer = d.el(page, "div", "class", "footer");
+        Element footerLeft = d.el(footer, "div", "class", "footer-left");
+        d.text(footerLeft, "p", "This is a system-generated invoice. No physical signature required.");
+        d.text(footerLeft, "p", "For queries: support@hyperinvoice.com", "style", "margin-top: 4px;");
+        Element footerRight = d.el(footer, "div", "class", "footer-right");
+        d.text(footerRight, "div", "Authorized Signature", "class", "signature-label");
+        d.text(footerRight, "div", "Digitally Signed by " + issuer, "class", "signature-sub");
+        d.text(footerRight, "div", str(m.invoiceDate()), "class", "signature-sub");
+
+        log.debug("[FastInvoiceRenderer] Built DOM for invoiceNumber: {} in {} µs | lineItems: {}",
+                m.invoiceNumber(), (System.nanoTime() - start) / 1_000, items != null ? items.size() : 0);
+        return d.doc;
+    }
+
+    // ── Private helpers ──────────────────────────────────────────────────────
+
+    /** Minimal element builder; elements are created namespace-aware with no namespace, as the parser does. */
+    private record Dom(Document doc) {
+
+        Element el(Node parent, String tag, String... attributes) {
+            Element element = doc.createElementNS(null, tag);
+            for (int i = 0; i < attributes.length; i += 2) {
+                element.setAttribute(attributes[i], attributes[i + 1]);
+            }
+            parent.appendChild(element);
+            return element;
+        }
+
+        /** Equivalent of {@code th:text}: a null value leaves the element empty. */
+        Element text(Node parent, String tag, String text, String... attributes) {
+            Element element = el(parent, tag, attributes);
+            if (text != null) {
+                element.appendChild(doc.createTextNode(text));
+            }
+            return element;
+        }
+
+        Element infoRow(Element column, String label, String value) {
+            Element row = el(column, "div", "class", "info-row");
+            space(row);
+            text(row, "span", label, "class", "label");
+            space(row);
+            text(row, "span", value);
+            space(row);
+            return row;
+        }
+
+        /** The template's line break and indentation next to an inline element, which renders as one space. */
+        void space(Node parent) {
+            parent.appendChild(doc.createTextNode(" "));
+        }
+
+        void totalsRow(Element table, String label, boolean boldLabel, String value) {
+            Element tr = el(table, "tr");
+            if (boldLabel) {
+                text(tr, "td", label, "class", "label");
+            } else {
+                text(tr, "td", label);
+            }
+            text(tr, "td", value, "class", "text-right");
+        }
+
+        /** Items table with its header row; returns the empty tbody. */
+        Element itemsTable(Element page, String descriptionWidth, String discountWidth, String netWidth) {
+            Element table = el(el(page, "div"), "table");
+            Element header = el(el(table, "thead"), "tr");
+            text(header, "th", "Sr No", "class", "text-center", "style", "width:5%;");
+            text(header, "th", "Description", "style", "width:" + descriptionWidth + ";");
+            text(header, "th", "Unit of Measure", "class", "text-center", "style", "width:12%;");
+            text(header, "th", "Quantity (Slots)", "class", "text-center", "style", "width:10%;");
+            text(header, "th", "Unit Price", "class", "text-right", "style", "width:12%;");
+            text(header, "th", "Amount (Rs.)", "class", "text-right", "style", "width:12%;");
+            text(header, "th", "Discount", "class", "text-right", "style", "width:" + discountWidth + ";");
+            text(header, "th", "Net Assessable Value (Rs.)", "class", "text-right", "style", "width:" + netWidth + ";");
+            return el(table, "tbody");
+        }
+    }
+
+    /** Thymeleaf's {@code th:if} truthiness rules, for the value types this template tests. */
+    private static boolean truthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue() != 0;
+        }
+        if (value instanceof String s) {
+            return !"false".equalsIgnoreCase(s) && !"off".equalsIgnoreCase(s) && !"no".equalsIgnoreCase(s);
+        }
+        return true;
+    }
+
+    private static String str(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String rupees(BigDecimal value) {
+        return "Rs. " + decimal(value);
+    }
+
+    /**
+     * Same output as {@code #numbers.formatDecimal(value, 1, 2)}: two decimals rounded half-even,
+     * no grouping, default-locale decimal separator.
+     */
+    private static String decimal(BigDecimal value) {
+        if (value == null) {
+            return null;
+        }
+        String plain = value.setScale(2, RoundingMode.HALF_EVEN).toPlainString();
+        char separator = DecimalFormatSymbols.getInstance(Locale.getDefault()).getDecimalSeparator();
+        return separator == '.' ? plain : plain.replace('.', separator);
+    }
+
+    private static Document newDocument() {
+        try {
+            return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder().newDocument();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Cannot create XML document builder", e);
+        }
+    }
+
+    private static String loadStylesheet() {
+        String path = "templates/" + TEMPLATE_NAME + ".html";
+        try {
+            String template = new ClassPathResource(path).getContentAsString(StandardCharsets.UTF_8);
+            int open = template.indexOf("<style>");
+            int close = template.indexOf("</style>");
+            if (open < 0 || close < open) {
+                throw new IllegalStateException("No <style> block found in " + path);
+            }
+            return template.substring(open + "<style>".length(), close);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + path, e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.client.BookingApiClient;
+import com.hyper.invoicebackend.dto.BookingResponse;
+import com.hyper.invoicebackend.dto.InvoiceExportRequestDTO;
+import com.hyper.invoicebackend.exception.InvalidRequestException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk export: renders many invoices in parallel and streams them into a ZIP as each completes.
+ * Exported documents are re-renders, so they are rendered as copies (see {@link InvoiceService#renderCopy}) and
+ * named after their booking: {@code booking-<id>[-<reference>]-copy.pdf}.
+ * Renders run on a shared pool of {@code invoice.export.concurrency} threads and each export keeps at
+ * most that many outstanding, so memory is bounded by a handful of PDFs regardless of archive size.
+ * Nothing touches disk.
+ */
+@Slf4j
+@Service
+public class InvoiceExportService {
+
+    private final InvoiceService invoiceService;
+    private final BookingApiClient bookingApiClient;
+    private final InvoiceTemplateRegistry templateRegistry;
+    private final ExecutorService renderExecutor;
+    private final int concurrency;
+    private final int maxBookings;
+
+    public InvoiceExportService(
+            InvoiceService invoiceService,
+            BookingApiClient bookingApiClient,
+            InvoiceTemplateRegistry templateRegistry,
+            @Value("${invoice.export.concurrency:2}") int concurrency,
+            @Value("${invoice.export.max-bookings:1000}") int maxBookings) {
+        this.invoiceService = invoiceService;
+        this.bookingApiClient = bookingApiClient;
+        this.templateRegistry = templateRegistry;
+        this.concurrency = concurrency;
+        this.maxBookings = maxBookings;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderExecutor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "invoice-export-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("[InvoiceExportService] Initialized | concurrency: {}, maxBookings: {}", concurrency, maxBookings);
+    }
+
+    /**
+     * Resolves the request into the bookings to export. Runs before the response is committed,
+     * so selection errors still surface as regular JSON error responses.
+     *
+     * @throws InvalidRequestException if the template is unknown, nothing matches or the selection exceeds
+     *                                 the configured limit
+     */
+    public ExportPlan plan(InvoiceExportRequestDTO request) {
+        // unknown keys fail here as a 400, not per booking into errors.txt after the 200 is committed
+        templateRegistry.resolve(request.getTemplate());
+
+        Map<Long, BookingResponse> prefetched = new LinkedHashMap<>();
+        List<Long> bookingIds;
+        if (request.getBookingIds() != null && !request.getBookingIds().isEmpty()) {
+            bookingIds = new ArrayList<>(new LinkedHashSet<>(request.getBookingIds()));
+            if (bookingIds.size() > maxBookings) {
+                throw new InvalidRequestException("Export selection has " + bookingIds.size()
+                        + " bookings; the maximum per archive is " + maxBookings);
+            }
+        } else {
+            // one past the limit is enough to reject; the rest of the result set is never read
+            for (BookingResponse booking : bookingApiClient.findBookings(
+                    request.getFrom(), request.getTo(), request.getResourceId(), maxBookings + 1)) {
+                prefetched.put(booking.getId(), booking);
+            }
+            if (prefetched.size() > maxBookings) {
+                throw new InvalidRequestException("Export selection has more than " + maxBookings
+                        + " bookings; the maximum per archive is " + maxBookings + ", narrow the date range");
+            }
+            bookingIds = new ArrayList<>(prefetched.keySet());
+        }
+
+        if (bookingIds.isEmpty()) {
+            throw new InvalidRequestException("No bookings match the export selection");
+        }
+        log.info("[InvoiceExportService] Export planned | bookings: {}, prefetched: {}, template: {}",
+                bookingIds.size(), prefetched.size(), request.getTemplate());
+        return new ExportPlan(bookingIds, prefetched, request.getTemplate());
+    }
+
+    /**
+     * Renders every booking in the plan and writes each PDF into a ZIP on {@code out} as soon as it
+     * is ready. Bookings that fail are listed in an {@code errors.txt} entry at the end of the archive.
+     */
+    public void writeZip(ExportPlan plan, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        log.info("[InvoiceExportService] Streaming ZIP | bookings: {}", plan.bookingIds().size());
+
+        CompletionService<ExportResult> completionService = new ExecutorCompletionService<>(renderExecutor);
+        List<Future<ExportResult>> futures = new ArrayList<>();
+        Iterator<Long> pending = plan.bookingIds().iterator();
+        List<String> errors = new ArrayList<>();
+        int inFlight = 0;
+        int written = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            while (inFlight < concurrency && pending.hasNext()) {
+                futures.add(completionService.submit(renderTask(plan, pending.next())));
+                inFlight++;
+            }
+            while (inFlight > 0) {
+                ExportResult result = completionService.take().get();
+                inFlight--;
+                if (pending.hasNext()) {
+                    futures.add(completionService.submit(renderTask(plan, pending.next())));
+                    inFlight++;
+                }
+
+                if (result.invoice() != null) {
+                    writeStoredEntry(zip, entryName(result), result.invoice().pdfBytes());
+                    zip.flush();
+                    written++;
+                } else {
+                    errors.add(result.bookingId() + ": " + result.error());
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                writeStoredEntry(zip, "errors.txt", String.join("\n", errors).getBytes(StandardCharsets.UTF_8));
+            }
+            zip.finish();
+            zip.flush();
+            log.info("[InvoiceExportService] ZIP streamed in {} ms | invoices: {}, failed: {}",
+                    System.currentTimeMillis() - start, written, errors.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Invoice export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Invoice export failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            // Client disconnects surface as IOExceptions from the writes above; stop outstanding renders
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private Callable<ExportResult> renderTask(ExportPlan plan, Long bookingId) {
+        return () -> {
+            try {
+                BookingResponse booking = plan.prefetched().get(bookingId);
+                if (booking == null) {
+                    booking = bookingApiClient.getBooking(bookingId);
+                }
+                return new ExportResult(bookingId, booking.getReference(),
+                        invoiceService.renderCopy(booking, plan.template()), null);
+            } catch (Exception e) {
+                log.warn("[InvoiceExportService] Render FAILED for bookingId: {} | error: {}", bookingId, e.getMessage());
+                return new ExportResult(bookingId, null, null, e.getMessage());
+            }
+        };
+    }
+
+    /** {@code booking-<id>[-<reference>]-copy.pdf}, the reference reduced to file-name-safe characters. */
+    static String entryName(ExportResult result) {
+        String reference = result.reference() != null
+                ? result.reference().replaceAll("[^A-Za-z0-9._-]", "_") : "";
+        return "booking-" + result.bookingId() + (reference.isEmpty() ? "" : "-" + reference) + "-copy.pdf";
+    }
+
+    /** PDFs are already compressed, so entries are STORED rather than deflated again. */
+    private void writeStoredEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    public record ExportPlan(
+            List<Long> bookingIds,
+            Map<Long, BookingResponse> prefetched,
+            String template
+    ) {}
+
+    record ExportResult(
+            Long bookingId,
+            String reference,
+            InvoiceService.RenderedInvoice invoice,
+            String error
+    ) {}
+}
@@ -0,0 +1,112 @@
+package com.hyper.invoicebackend.service;
+
+import lombok.Builder;
+import org.thymeleaf.context.Context;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Typed view model for an invoice document. Consumed directly by {@link FastInvoiceRenderer},
+ * or turned into a Thymeleaf {@link Context} (same variable names) for template rendering.
+ */
+@Builder
+public record InvoiceModel(
+        // Invoice meta
+        String invoiceNumber,
+        LocalDate invoiceDate,
+        Long bookingId,
+        String bookingReference,
+        String documentType,
+        String documentTitle,
+
+        // Customer
+        String customerName,
+        String customerEmail,
+        String customerPhone,
+        String customerAddress,
+
+        // Venue / service
+        String issuerName,
+        String venueName,
+        String serviceName,
+        String venueGstin,
+        String venueAddress,
+        String venueState,
+        String placeOfSupply,
+        String gstin,
+        String sacCode,
+
+        // Slot details
+        String startTime,
+        String endTime,
+        String bookingStatus,
+        String currency,
+
+        // Financials
+        BigDecimal slotSubtotal,
+        BigDecimal platformFee,
+        BigDecimal platformFeePercent,
+        BigDecimal onlineAmount,
+        BigDecimal venueAmount,
+        BigDecimal amount,
+        BigDecimal discount,
+        BigDecimal netAssessable,
+        BigDecimal gstAmount,
+        BigDecimal invoiceTotal,
+        String invoiceTotalInWords,
+        List<InvoiceService.BookingLineItem> lineItems
+) {
+
+    public Context toContext() {
+        Context context = new Context();
+
+        // Invoice meta
+        context.setVariable("invoiceNumber",       invoiceNumber);
+        context.setVariable("invoiceDate",         invoiceDate);
+        context.setVariable("bookingId",           bookingId);
+        context.setVariable("bookingReference",    bookingReference);
+        context.setVariable("documentType",        documentType);
+        context.setVariable("documentTitle",       documentTitle);
+
+        // Customer
+        context.setVariable("customerName",        customerName);
+        context.setVariable("customerEmail",       customerEmail);
+        context.setVariable("customerPhone",       customerPhone);
+        context.setVariable("customerAddress",     customerAddress);
+
+        // Venue / service
+        context.setVariable("issuerName",          issuerName);
+        context.setVariable("venueName",           venueName);
+        context.setVariable("serviceName",         serviceName);
+        context.setVariable("venueGstin",          venueGstin);
+        context.setVariable("venueAddress",        venueAddress);
+        context.setVariable("venueState",          venueState);
+        context.setVariable("placeOfSupply",       placeOfSupply);
+        context.setVariable("gstin",               gstin);
+        context.setVariable("sacCode",             sacCode);
+
+        // Slot details
+        context.setVariable("startTime",           startTime);
+        context.setVariable("endTime",             endTime);
+        context.setVariable("bookingStatus",       bookingStatus);
+        context.setVariable("currency",            currency);
+
+        // Financials
+        context.setVariable("slotSubtotal",        slotSubtotal);
+        context.setVariable("platformFee",         platformFee);
+        context.setVariable("platformFeePercent",  platformFeePercent);
+        context.setVariable("onlineAmount",        onlineAmount);
+        context.setVariable("venueAmount",         venueAmount);
+        context.setVariable("amount",              amount);
+        context.setVariable("discount",            discount);
+        context.setVariable("netAssessable",       netAssessable);
+        context.setVariable("gstAmount",           gstAmount);
+        context.setVariable("invoiceTotal",        invoiceTotal);
+        context.setVariable("invoiceTotalInWords", invoiceTotalInWords);
+        context.setVariable("lineItems",           lineItems);
+
+        return context;
+    }
+}
@@ -0,0 +1,243 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.client.BookingApiClient;
+import com.hyper.invoicebackend.cluster.ClusterMembership;
+import com.hyper.invoicebackend.config.PregenerationProperties;
+import com.hyper.invoicebackend.dto.BookingResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders invoices for newly confirmed bookings ahead of time and stages the PDFs in
+ * {@link StagedInvoiceCache}, so the later {@code POST /api/invoices/generate} only has to upload and
+ * deliver it. Nothing is uploaded speculatively. Opt-in via {@code invoice.pregeneration.enabled}.
+ * <p>
+ * Bookings arrive from "booking confirmed" notifications ({@link #submit}) and, when
+ * {@code invoice.pregeneration.feed.enabled}, from polling the booking search API (point
+ * {@code booking.api.base-url}/{@code search-path} at a stub to drive it locally). In cluster mode each
+ * node only takes the feed bookings it owns.
+ * Work is bounded by a fixed-size queue (overflow is dropped — this is only speculation) and throttled:
+ * low-priority workers, a minimum interval between jobs, and no work while system CPU load is above
+ * {@code max-cpu-load}.
+ */
+@Slf4j
+@Service
+public class InvoicePregenerationService {
+
+    private static final int MAX_SEEN = 10_000;
+
+    private final InvoiceService invoiceService;
+    private final BookingApiClient bookingApiClient;
+    private final StagedInvoiceCache stagedInvoiceCache;
+    private final PregenerationProperties properties;
+    private final ClusterMembership clusterMembership;
+
+    private final BlockingQueue<Job> queue;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    /** Bookings already taken from the feed, so each poll only submits new confirmations. */
+    private final Map<Long, Boolean> seenInFeed = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > MAX_SEEN;
+        }
+    };
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScheduledExecutorService feedPoller;
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+    private final Counter staged;
+    private final Counter failed;
+    private final Counter dropped;
+
+    public InvoicePregenerationService(InvoiceService invoiceService,
+                                       BookingApiClient bookingApiClient,
+                                       StagedInvoiceCache stagedInvoiceCache,
+                                       PregenerationProperties properties,
+                                       ClusterMembership clusterMembership,
+                                       MeterRegistry meterRegistry) {
+        this.invoiceService = invoiceService;
+        this.bookingApiClient = bookingApiClient;
+        this.stagedInvoiceCache = stagedInvoiceCache;
+        this.properties = properties;
+        this.clusterMembership = clusterMembership;
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+        this.staged = jobCounter(meterRegistry, "staged");
+        this.failed = jobCounter(meterRegistry, "failed");
+        this.dropped = jobCounter(meterRegistry, "dropped");
+
+        if (properties.isEnabled()) {
+            for (int i = 1; i <= properties.getWorkers(); i++) {
+                Thread worker = new Thread(this::runWorker, "invoice-pregen-" + i);
+                worker.setDaemon(true);
+                worker.setPriority(Thread.MIN_PRIORITY);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+        PregenerationProperties.Feed feed = properties.getFeed();
+        if (properties.isEnabled() && feed.isEnabled()) {
+            feedPoller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "invoice-pregen-feed");
+                t.setDaemon(true);
+                return t;
+            });
+            feedPoller.scheduleWithFixedDelay(this::pollFeed, 0, feed.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            feedPoller = null;
+        }
+        log.info("[InvoicePregenerationService] Pre-generation {} | workers: {}, queueCapacity: {}, minInterval: {}, maxCpuLoad: {}, feed: {}",
+                properties.isEnabled() ? "ENABLED" : "DISABLED", properties.getWorkers(), properties.getQueueCapacity(),
+                properties.getMinInterval(), properties.getMaxCpuLoad(),
+                feedPoller != null ? "every " + feed.getInterval() : "off");
+    }
+
+    /**
+     * Queues a confirmed booking for pre-generation; the booking is fetched when its turn comes.
+     *
+     * @return false if pre-generation is disabled, the booking is already queued, or the queue is full
+     */
+    public boolean submit(Long bookingId, String templateKey) {
+        return enqueue(new Job(bookingId, null, templateKey));
+    }
+
+    private boolean enqueue(Job job) {
+        if (!properties.isEnabled() || !queued.add(job.bookingId())) {
+            return false;
+        }
+        if (!queue.offer(job)) {
+            queued.remove(job.bookingId());
+            dropped.increment();
+            log.warn("[InvoicePregenerationService] Queue full ({}), dropped bookingId: {}",
+                    properties.getQueueCapacity(), job.bookingId());
+            return false;
+        }
+        log.debug("[InvoicePregenerationService] Queued bookingId: {} | queue size: {}", job.bookingId(), queue.size());
+        return true;
+    }
+
+    // ── Feed ─────────────────────────────────────────────────────────────────
+
+    private void pollFeed() {
+        PregenerationProperties.Feed feed = properties.getFeed();
+        try {
+            LocalDate today = LocalDate.now();
+            List<BookingResponse> bookings = bookingApiClient.findBookings(today, today.plusDays(feed.getLookaheadDays()), null);
+            int submitted = 0;
+            for (BookingResponse booking : bookings) {
+                if (booking.getId() == null || !isConfirmed(booking.getStatus())
+                        || !clusterMembership.isLocal(booking.getId())) {
+                    continue;
+                }
+                boolean fresh;
+                synchronized (seenInFeed) {
+                    fresh = seenInFeed.put(booking.getId(), Boolean.TRUE) == null;
+                }
+                if (fresh && enqueue(new Job(booking.getId(), booking, null))) {
+                    submitted++;
+                }
+            }
+            log.debug("[InvoicePregenerationService] Feed polled | {} bookings, {} newly queued", bookings.size(), submitted);
+        } catch (Exception e) {
+            log.warn("[InvoicePregenerationService] Feed poll FAILED | error: {}", e.getMessage());
+        }
+    }
+
+    private boolean isConfirmed(String status) {
+        return status != null && properties.getFeed().getConfirmedStatuses().stream().anyMatch(status::equalsIgnoreCase);
+    }
+
+    // ── Workers ──────────────────────────────────────────────────────────────
+
+    private void runWorker() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Job job = queue.take();
+                try {
+                    awaitIdleCpu();
+                    pregenerate(job);
+                } finally {
+                    queued.remove(job.bookingId());
+                }
+                Thread.sleep(properties.getMinInterval().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitIdleCpu() throws InterruptedException {
+        while (cpuLoad() > properties.getMaxCpuLoad()) {
+            Thread.sleep(properties.getIdleCheckInterval().toMillis());
+        }
+    }
+
+    /** System CPU load in [0, 1], falling back to load average per core; negative when unknown. */
+    private double cpuLoad() {
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            return sunOs.getCpuLoad();
+        }
+        return os.getSystemLoadAverage() / os.getAvailableProcessors();
+    }
+
+    private void pregenerate(Job job) {
+        CompletableFuture<InvoiceService.RenderedInvoice> future =
+                stagedInvoiceCache.reserve(job.bookingId(), job.templateKey()).orElse(null);
+        if (future == null) {
+            log.debug("[InvoicePregenerationService] Skipping bookingId: {} | already staged or requested", job.bookingId());
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            BookingResponse booking = job.booking() != null && InvoiceService.isComplete(job.booking())
+                    ? job.booking()
+                    : bookingApiClient.getBooking(job.bookingId());
+            InvoiceService.RenderedInvoice rendered = invoiceService.renderInvoice(booking, job.templateKey());
+            future.complete(rendered);
+            staged.increment();
+            log.info("[InvoicePregenerationService] Staged invoice {} for bookingId: {} in {} ms",
+                    rendered.invoiceNumber(), job.bookingId(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            failed.increment();
+            log.warn("[InvoicePregenerationService] Pre-generation FAILED for bookingId: {} after {} ms | error: {}",
+                    job.bookingId(), System.currentTimeMillis() - start, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (feedPoller != null) {
+            feedPoller.shutdownNow();
+        }
+        workers.forEach(Thread::interrupt);
+    }
+
+    private static Counter jobCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("invoice.pregeneration.jobs")
+                .tag("result", result)
+                .description("Pre-generation jobs by outcome")
+                .register(meterRegistry);
+    }
+
+    /** {@code booking} is set when the feed already supplied it, saving a fetch. */
+    private record Job(Long bookingId, BookingResponse booking, String templateKey) {}
+}
@@ -4,34 +4,46 @@ import com.hyper.invoicebackend.client.BookingApiClient;
 import com.hyper.invoicebackend.dto.BookingResponse;
 import com.hyper.invoicebackend.dto.InvoiceRequestDTO;
 import com.hyper.invoicebackend.dto.InvoiceResponseDTO;
+import com.hyper.invoicebackend.exception.InvalidRequestException;
+import com.hyper.invoicebackend.profiling.InvoiceStageEvent;
 import com.hyper.invoicebackend.util.AmountToWordsConverter;
 import com.hyper.invoicebackend.util.InvoiceNumberGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
+import org.w3c.dom.Document;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InvoiceService {
 
+    private static final String COPY_TITLE_SUFFIX = " (Copy)";
+    /** Printed in place of the invoice number on copies; the original number is not stored. */
+    static final String COPY_INVOICE_NUMBER = "COPY (not an invoice number)";
+
     private final PdfGeneratorService pdfGeneratorService;
     private final CloudinaryService cloudinaryService;
     private final InvoiceNumberGenerator invoiceNumberGenerator;
     private final AmountToWordsConverter amountToWordsConverter;
     private final BookingApiClient bookingApiClient;
+    private final InvoiceTemplateRegistry templateRegistry;
+    private final VenueBrandingRegistry venueBrandingRegistry;
+    private final FastInvoiceRenderer fastInvoiceRenderer;
+    private final StagedInvoiceCache stagedInvoiceCache;
 
     /**
-     * Invoice generation flow:
+     * Invoice generation flow (steps 1-3 are skipped when a pre-rendered invoice is staged):
      * 1. Fetch booking data from external API
      * 2. Generate invoice number
-     * 3. Render invoice.html → PDF
+     * 3. Render the selected template (request → venue → default) → PDF
      * 4. Upload PDF to Cloudinary
      * 5. POST Cloudinary URL + bookingId to /invoice-receive
      * 6. Return URL in response
@@ -41,56 +53,149 @@ public class InvoiceService {
         log.info("========== [InvoiceService] START generateInvoice ==========");
         log.info("[InvoiceService] Input -> bookingId: {}", request.getBookingId());
 
-        // ── Step 1: Fetch booking ────────────────────────────────────────────
-        log.info("[InvoiceService] Step 1/6 -> Fetching booking data for bookingId: {}", request.getBookingId());
-        long step1Start = System.currentTimeMillis();
-        BookingResponse booking = bookingApiClient.getBooking(request.getBookingId());
-        log.info("[InvoiceService] Step 1/6 -> Booking fetched in {} ms | id={}, reference={}, status={}, customer={}",
-                System.currentTimeMillis() - step1Start,
-                booking.getId(), booking.getReference(), booking.getStatus(),
-                booking.getUser() != null ? booking.getUser().getName() : "N/A");
+        try (InvoiceStageEvent event = new InvoiceStageEvent(InvoiceStageEvent.GENERATE, request.getBookingId())) {
+            // ── Steps 1-3 already done ahead of time? ─────────────────────────────
+            Optional<InvoiceResponseDTO> fromStaged = completeStagedInvoice(request.getBookingId(), request.getTemplate(), totalStart);
+            if (fromStaged.isPresent()) {
+                event.setInvoiceNumber(fromStaged.get().getInvoiceNumber());
+                event.succeeded();
+                return fromStaged.get();
+            }
 
-        // ── Validate booking ─────────────────────────────────────────────────
-        log.debug("[InvoiceService] Validating booking data...");
-        validateBooking(booking);
-        log.info("[InvoiceService] Booking validation passed for bookingId: {}", booking.getId());
+            // ── Step 1: Fetch booking ────────────────────────────────────────────
+            log.info("[InvoiceService] Step 1/6 -> Fetching booking data for bookingId: {}", request.getBookingId());
+            long step1Start = System.currentTimeMillis();
+            BookingResponse booking = fetchBooking(request.getBookingId());
+            log.info("[InvoiceService] Step 1/6 -> Booking fetched in {} ms | id={}, reference={}, status={}, customer={}",
+                    System.currentTimeMillis() - step1Start,
+                    booking.getId(), booking.getReference(), booking.getStatus(),
+                    booking.getUser() != null ? booking.getUser().getName() : "N/A");
 
-        // ── Step 2: Generate invoice number ──────────────────────────────────
-        log.info("[InvoiceService] Step 2/6 -> Generating invoice number...");
-        long step2Start = System.currentTimeMillis();
-        String invoiceNumber = invoiceNumberGenerator.generate();
-        log.info("[InvoiceService] Step 2/6 -> Invoice number generated in {} ms | invoiceNumber: {}",
-                System.currentTimeMillis() - step2Start, invoiceNumber);
-
-        // ── Step 3: Build Thymeleaf context ───────────────────────────────────
-        log.info("[InvoiceService] Step 3a/6 -> Building Thymeleaf context...");
-        long step3aStart = System.currentTimeMillis();
-        Context context = buildThymeleafContext(booking, invoiceNumber);
-        log.info("[InvoiceService] Step 3a/6 -> Thymeleaf context built in {} ms | variables count: {}",
-                System.currentTimeMillis() - step3aStart, context.getVariableNames().size());
-        log.debug("[InvoiceService] Step 3a/6 -> Context variables: {}", context.getVariableNames());
+            InvoiceResponseDTO response = completeInvoice(booking, request.getTemplate(), totalStart);
+            event.setInvoiceNumber(response.getInvoiceNumber());
+            event.succeeded();
+            return response;
+        }
+    }
 
-        // ── Step 3b: Render HTML → PDF ────────────────────────────────────────
-        log.info("[InvoiceService] Step 3b/6 -> Rendering template 'invoice' and generating PDF...");
-        long step3bStart = System.currentTimeMillis();
-        byte[] pdfBytes = pdfGeneratorService.generatePdf("invoice", context);
-        log.info("[InvoiceService] Step 3b/6 -> PDF generated in {} ms | size: {} bytes (~{} KB)",
-                System.currentTimeMillis() - step3bStart,
-                pdfBytes.length, pdfBytes.length / 1024);
+    /**
+     * Push-mode flow: the booking service sends the booking it already holds, so step 1 is skipped.
+     * A complete payload (see {@link #isComplete}) is authoritative: it is always rendered, and any
+     * invoice pre-rendered from an earlier fetch of the booking is discarded. Only an incomplete payload
+     * falls back to the pull flow of {@link #generateInvoice(InvoiceRequestDTO)}: staged invoice, else fetch.
+     *
+     * @param pushed      the verified booking payload
+     * @param templateKey optional template key; falls back to the venue's template, then the default
+     */
+    public InvoiceResponseDTO generateInvoice(BookingResponse pushed, String templateKey) {
+        long totalStart = System.currentTimeMillis();
+        log.info("========== [InvoiceService] START generateInvoice (push) ==========");
+        log.info("[InvoiceService] Input -> pushed bookingId: {}", pushed.getId());
+
+        try (InvoiceStageEvent event = new InvoiceStageEvent(InvoiceStageEvent.GENERATE, pushed.getId())) {
+            // ── Step 1: Use pushed booking, fetch only if incomplete ──────────────
+            BookingResponse booking = pushed;
+            if (isComplete(pushed)) {
+                // the pushed payload wins over an invoice pre-rendered from a possibly stale fetch
+                stagedInvoiceCache.discard(pushed.getId());
+                log.info("[InvoiceService] Step 1/6 -> Using pushed booking payload | id={}, reference={}, status={}, customer={}",
+                        pushed.getId(), pushed.getReference(), pushed.getStatus(), pushed.getUser().getName());
+            } else {
+                if (pushed.getId() == null) {
+                    throw new InvalidRequestException("Pushed booking payload has no id");
+                }
+                // ── Steps 1-3 already done ahead of time? ─────────────────────────
+                Optional<InvoiceResponseDTO> fromStaged = completeStagedInvoice(pushed.getId(), templateKey, totalStart);
+                if (fromStaged.isPresent()) {
+                    event.setInvoiceNumber(fromStaged.get().getInvoiceNumber());
+                    event.succeeded();
+                    return fromStaged.get();
+                }
+                log.info("[InvoiceService] Step 1/6 -> Pushed payload incomplete, fetching booking data for bookingId: {}",
+                        pushed.getId());
+                long step1Start = System.currentTimeMillis();
+                booking = fetchBooking(pushed.getId());
+                log.info("[InvoiceService] Step 1/6 -> Booking fetched in {} ms | id={}, reference={}, status={}",
+                        System.currentTimeMillis() - step1Start,
+                        booking.getId(), booking.getReference(), booking.getStatus());
+            }
+
+            InvoiceResponseDTO response = completeInvoice(booking, templateKey, totalStart);
+            event.setInvoiceNumber(response.getInvoiceNumber());
+            event.succeeded();
+            return response;
+        }
+    }
+
+    /**
+     * True when a pushed booking carries everything the pull-mode API would have supplied
+     * for the invoice: identity, booking date, service/venue and slot (line items, and the
+     * venue branding looked up by resource ID), customer and amount breakdown with a total.
+     */
+    static boolean isComplete(BookingResponse booking) {
+        return booking.getId() != null
+                && booking.getReference() != null
+                && booking.getBookingDate() != null
+                && booking.getServiceName() != null
+                && booking.getResourceId() != null
+                && booking.getResourceName() != null
+                && booking.getStartTime() != null
+                && booking.getEndTime() != null
+                && booking.getUser() != null
+                && booking.getUser().getName() != null
+                && booking.getAmountBreakdown() != null
+                && booking.getAmountBreakdown().getTotalAmount() != null;
+    }
+
+    /** Steps 2-6 shared by the pull and push flows. */
+    private InvoiceResponseDTO completeInvoice(BookingResponse booking, String templateKey, long totalStart) {
+        RenderedInvoice rendered = renderInvoice(booking, templateKey);
+        return deliverInvoice(uploadInvoice(rendered), totalStart);
+    }
+
+    /** Steps 4-6 for an invoice pre-rendered by {@link InvoicePregenerationService}, if one is staged. */
+    private Optional<InvoiceResponseDTO> completeStagedInvoice(Long bookingId, String templateKey, long totalStart) {
+        return stagedInvoiceCache.take(bookingId, templateKey).map(rendered -> {
+            log.info("[InvoiceService] Steps 1-3/6 -> Using pre-rendered invoice {} for bookingId: {}",
+                    rendered.invoiceNumber(), bookingId);
+            return deliverInvoice(uploadInvoice(rendered), totalStart);
+        });
+    }
+
+    /** Step 4: upload the rendered PDF to Cloudinary. */
+    private PreparedInvoice uploadInvoice(RenderedInvoice rendered) {
+        String invoiceNumber = rendered.invoiceNumber();
+        byte[] pdfBytes = rendered.pdfBytes();
 
         // ── Step 4: Upload to Cloudinary ──────────────────────────────────────
         log.info("[InvoiceService] Step 4/6 -> Uploading PDF to Cloudinary | publicId: invoices/{}",
                 invoiceNumber);
         long step4Start = System.currentTimeMillis();
-        String cloudinaryUrl = cloudinaryService.uploadPdf(pdfBytes, invoiceNumber);
+        String cloudinaryUrl;
+        try (InvoiceStageEvent event = new InvoiceStageEvent(InvoiceStageEvent.UPLOAD, rendered.bookingId(), invoiceNumber)) {
+            event.setBytes(pdfBytes.length);
+            cloudinaryUrl = cloudinaryService.uploadPdf(pdfBytes, invoiceNumber);
+            event.succeeded();
+        }
         log.info("[InvoiceService] Step 4/6 -> PDF uploaded to Cloudinary in {} ms | url: {}",
                 System.currentTimeMillis() - step4Start, cloudinaryUrl);
 
+        return new PreparedInvoice(rendered.bookingId(), invoiceNumber, cloudinaryUrl);
+    }
+
+    /** Steps 5-6: deliver the URL to the booking service and build the response. */
+    private InvoiceResponseDTO deliverInvoice(PreparedInvoice prepared, long totalStart) {
+        String invoiceNumber = prepared.invoiceNumber();
+        String cloudinaryUrl = prepared.cloudinaryUrl();
+
         // ── Step 5: Deliver URL to booking service ────────────────────────────
         log.info("[InvoiceService] Step 5/6 -> Sending invoice URL to booking service | bookingId: {}",
-                booking.getId());
+                prepared.bookingId());
         long step5Start = System.currentTimeMillis();
-        bookingApiClient.sendInvoiceUrl(booking.getId(), cloudinaryUrl);
+        try (InvoiceStageEvent event = new InvoiceStageEvent(InvoiceStageEvent.DELIVER, prepared.bookingId(), invoiceNumber)) {
+            bookingApiClient.sendInvoiceUrl(prepared.bookingId(), cloudinaryUrl);
+            event.succeeded();
+        }
         log.info("[InvoiceService] Step 5/6 -> Invoice URL delivered in {} ms",
                 System.currentTimeMillis() - step5Start);
 
@@ -107,8 +212,114 @@ public class InvoiceService {
         return response;
     }
 
+    /**
+     * Validates a fetched booking, assigns an invoice number and renders the PDF
+     * (steps 2-3 of {@link #generateInvoice}) without uploading or delivering it. Used by the export and,
+     * to stage invoices, by {@link InvoicePregenerationService}.
+     *
+     * @param booking     the booking to invoice
+     * @param templateKey optional template key; falls back to the venue's template, then the default
+     */
+    public RenderedInvoice renderInvoice(BookingResponse booking, String templateKey) {
+        return renderInvoice(booking, templateKey, false);
+    }
+
+    /**
+     * Like {@link #renderInvoice} but for a copy: titled e.g. "Tax Invoice (Copy)" and, since the
+     * original invoice number is not stored, printed with {@value #COPY_INVOICE_NUMBER} instead of a
+     * number. Used by the export.
+     */
+    public RenderedInvoice renderCopy(BookingResponse booking, String templateKey) {
+        return renderInvoice(booking, templateKey, true);
+    }
+
+    private RenderedInvoice renderInvoice(BookingResponse booking, String templateKey, boolean copy) {
+        // ── Validate booking ─────────────────────────────────────────────────
+        log.debug("[InvoiceService] Validating booking data...");
+        validateBooking(booking);
+        log.info("[InvoiceService] Booking validation passed for bookingId: {}", booking.getId());
+
+        // ── Step 2: Generate invoice number ──────────────────────────────────
+        String invoiceNumber;
+        if (copy) {
+            invoiceNumber = COPY_INVOICE_NUMBER;
+            log.info("[InvoiceService] Step 2/6 -> Rendering a copy; no invoice number assigned");
+        } else {
+            log.info("[InvoiceService] Step 2/6 -> Generating invoice number...");
+            long step2Start = System.currentTimeMillis();
+            try (InvoiceStageEvent event = new InvoiceStageEvent(InvoiceStageEvent.NUMBER, booking.getId())) {
+                invoiceNumber = invoiceNumberGenerator.generate();
+                event.setInvoiceNumber(invoiceNumber);
+                event.succeeded();
+            }
+            log.info("[InvoiceService] Step 2/6 -> Invoice number generated in {} ms | invoiceNumber: {}",
+                    System.currentTimeMillis() - step2Start, invoiceNumber);
+        }
+
+        // ── Step 3: Build invoice model ───────────────────────────────────────
+        log.info("[InvoiceService] Step 3a/6 -> Building invoice model...");
+        long step3aStart = System.currentTimeMillis();
+        InvoiceTemplateRegistry.InvoiceTemplate template;
+        InvoiceModel model;
+        try (InvoiceStageEvent event = new InvoiceStageEvent(InvoiceStageEvent.MODEL, booking.getId(), invoiceNumber)) {
+            VenueBrandingRegistry.VenueBranding branding = venueBrandingRegistry.resolve(booking);
+            template = templateRegistry.resolve(templateKey != null ? templateKey : branding.template());
+            log.info("[InvoiceService] Step 3a/6 -> Using template '{}' ({}) | issuer: {}",
+                    template.key(), template.templateName(), branding.issuerName());
+            model = buildInvoiceModel(booking, invoiceNumber, template, branding, copy);
+            event.succeeded();
+        }
+        log.info("[InvoiceService] Step 3a/6 -> Invoice model built in {} ms | lineItems: {}",
+                System.currentTimeMillis() - step3aStart, model.lineItems().size());
+
+        // ── Step 3b: Render HTML → PDF ────────────────────────────────────────
+        long step3bStart = System.currentTimeMillis();
+        byte[] pdfBytes;
+        try (InvoiceStageEvent event = new InvoiceStageEvent(InvoiceStageEvent.RENDER, booking.getId(), invoiceNumber)) {
+            pdfBytes = renderPdf(template, model);
+            event.setBytes(pdfBytes.length);
+            event.succeeded();
+        }
+        log.info("[InvoiceService] Step 3b/6 -> PDF generated in {} ms | size: {} bytes (~{} KB)",
+                System.currentTimeMillis() - step3bStart,
+                pdfBytes.length, pdfBytes.length / 1024);
+
+        return new RenderedInvoice(booking.getId(), invoiceNumber, template.key(), pdfBytes);
+    }
+
     // ── Private helpers ──────────────────────────────────────────────────────
 
+    private BookingResponse fetchBooking(Long bookingId) {
+        try (InvoiceStageEvent event = new InvoiceStageEvent(InvoiceStageEvent.FETCH, bookingId)) {
+            BookingResponse booking = bookingApiClient.getBooking(bookingId);
+            event.succeeded();
+            return booking;
+        }
+    }
+
+    /**
+     * Uses the compiled fast path when it covers the template, falling back to Thymeleaf
+     * if it does not or if the fast path fails.
+     */
+    private byte[] renderPdf(InvoiceTemplateRegistry.InvoiceTemplate template, InvoiceModel model) {
+        if (fastInvoiceRenderer.supports(template.templateName())) {
+            Document document = null;
+            try {
+                document = fastInvoiceRenderer.render(model);
+            } catch (RuntimeException e) {
+                log.warn("[InvoiceService] Fast path FAILED for invoiceNumber: {}, falling back to Thymeleaf | error: {}",
+                        model.invoiceNumber(), e.getMessage());
+            }
+            if (document != null) {
+                log.info("[InvoiceService] Step 3b/6 -> Rendered '{}' via compiled fast path, generating PDF...",
+                        template.templateName());
+                return pdfGeneratorService.generatePdf(document, template.templateName());
+            }
+        }
+        log.info("[InvoiceService] Step 3b/6 -> Rendering template '{}' and generating PDF...", template.templateName());
+        return pdfGeneratorService.generatePdf(template.templateName(), model.toContext());
+    }
+
     private void validateBooking(BookingResponse booking) {
         log.debug("[InvoiceService] Validating booking -> checking for null booking...");
         if (booking == null) {
@@ -131,8 +342,11 @@ public class InvoiceService {
                 booking.getAmountBreakdown().getTotalAmount());
     }
 
-    private Context buildThymeleafContext(BookingResponse booking, String invoiceNumber) {
-        log.debug("[InvoiceService] Building Thymeleaf context for invoiceNumber: {}", invoiceNumber);
+    private InvoiceModel buildInvoiceModel(BookingResponse booking, String invoiceNumber,
+                                           InvoiceTemplateRegistry.InvoiceTemplate template,
+                                           VenueBrandingRegistry.VenueBranding branding,
+                                           boolean copy) {
+        log.debug("[InvoiceService] Building invoice model for invoiceNumber: {}", invoiceNumber);
         BookingResponse.AmountBreakdown ab = booking.getAmountBreakdown();
         BookingResponse.UserInfo user      = booking.getUser();
 
@@ -149,68 +363,86 @@ public class InvoiceService {
         String totalInWords = amountToWordsConverter.convert(invoiceTotal);
         log.debug("[InvoiceService] Invoice total in words: \"{}\"", totalInWords);
 
-        // Single line item built from booking slot
-        BookingLineItem lineItem = new BookingLineItem(
-                booking.getServiceName() + " - " + booking.getResourceName(),
-                booking.getStartTime() + " to " + booking.getEndTime(),
-                1,
-                ab.getSlotSubtotal() != null ? ab.getSlotSubtotal() : amount,
-                BigDecimal.ZERO
-        );
-        log.debug("[InvoiceService] Line item -> description: '{}', slot: '{}', unitPrice: {}",
-                lineItem.description(), lineItem.unitOfMeasure(), lineItem.unitPrice());
-
-        Context context = new Context();
-
-        // Invoice meta
-        context.setVariable("invoiceNumber",       invoiceNumber);
-        context.setVariable("invoiceDate",         booking.getBookingDate() != null ? booking.getBookingDate() : LocalDate.now());
-        context.setVariable("bookingId",           booking.getId());
-        context.setVariable("bookingReference",    booking.getReference());
-        context.setVariable("documentType",        "INV");
-
-        // Customer
-        context.setVariable("customerName",        user.getName());
-        context.setVariable("customerEmail",       user.getEmail());
-        context.setVariable("customerPhone",       user.getPhone());
-        context.setVariable("customerAddress",     null);
-
-        // Venue / service
-        context.setVariable("issuerName",          "HyperInvoice");
-        context.setVariable("venueName",           booking.getResourceName());
-        context.setVariable("serviceName",         booking.getServiceName());
-        context.setVariable("venueGstin",          null);
-        context.setVariable("venueAddress",        null);
-        context.setVariable("venueState",          null);
-        context.setVariable("placeOfSupply",       null);
-        context.setVariable("gstin",               null);
-        context.setVariable("sacCode",             null);
-
-        // Slot details
-        context.setVariable("startTime",           booking.getStartTime());
-        context.setVariable("endTime",             booking.getEndTime());
-        context.setVariable("bookingStatus",       booking.getStatus());
-        context.setVariable("currency",            ab.getCurrency() != null ? ab.getCurrency() : "INR");
-
-        // Financials
-        context.setVariable("slotSubtotal",        ab.getSlotSubtotal());
-        context.setVariable("platformFee",         ab.getPlatformFee());
-        context.setVariable("platformFeePercent",  ab.getPlatformFeePercent());
-        context.setVariable("onlineAmount",        ab.getOnlineAmount());
-        context.setVariable("venueAmount",         ab.getVenueAmount());
-        context.setVariable("amount",              amount);
-        context.setVariable("discount",            BigDecimal.ZERO);
-        context.setVariable("netAssessable",       netAssessable);
-        context.setVariable("gstAmount",           gstAmount);
-        context.setVariable("invoiceTotal",        invoiceTotal);
-        context.setVariable("invoiceTotalInWords", totalInWords);
-        context.setVariable("lineItems",           List.of(lineItem));
-
-        log.debug("[InvoiceService] Thymeleaf context populated -> customer: {}, service: {}, resource: {}, currency: {}, total: {}",
+        BigDecimal slotSubtotal = ab.getSlotSubtotal() != null ? ab.getSlotSubtotal() : amount;
+        List<BookingLineItem> lineItems;
+        if (template.statement() && booking.getChildBookings() != null && !booking.getChildBookings().isEmpty()) {
+            lineItems = buildStatementLineItems(booking);
+            log.debug("[InvoiceService] Statement mode -> {} line items built from childBookings", lineItems.size());
+        } else {
+            // Single line item built from booking slot
+            BookingLineItem lineItem = new BookingLineItem(
+                    booking.getServiceName() + " - " + booking.getResourceName(),
+                    booking.getStartTime() + " to " + booking.getEndTime(),
+                    1,
+                    slotSubtotal,
+                    BigDecimal.ZERO
+            );
+            log.debug("[InvoiceService] Line item -> description: '{}', slot: '{}', unitPrice: {}",
+                    lineItem.description(), lineItem.unitOfMeasure(), lineItem.unitPrice());
+            lineItems = List.of(lineItem);
+        }
+
+        InvoiceModel model = InvoiceModel.builder()
+                // Invoice meta
+                .invoiceNumber(invoiceNumber)
+                .invoiceDate(booking.getBookingDate() != null ? booking.getBookingDate() : LocalDate.now())
+                .bookingId(booking.getId())
+                .bookingReference(booking.getReference())
+                .documentType(template.documentType())
+                .documentTitle(copy ? template.title() + COPY_TITLE_SUFFIX : template.title())
+                // Customer
+                .customerName(user.getName())
+                .customerEmail(user.getEmail())
+                .customerPhone(user.getPhone())
+                // Venue / service
+                .issuerName(branding.issuerName())
+                .venueName(branding.venueName())
+                .serviceName(booking.getServiceName())
+                .venueGstin(branding.gstin())
+                .venueAddress(branding.address())
+                .venueState(branding.state())
+                .placeOfSupply(branding.placeOfSupply())
+                .sacCode(branding.sacCode())
+                // Slot details
+                .startTime(booking.getStartTime())
+                .endTime(booking.getEndTime())
+                .bookingStatus(booking.getStatus())
+                .currency(ab.getCurrency() != null ? ab.getCurrency() : "INR")
+                // Financials
+                .slotSubtotal(ab.getSlotSubtotal())
+                .platformFee(ab.getPlatformFee())
+                .platformFeePercent(ab.getPlatformFeePercent())
+                .onlineAmount(ab.getOnlineAmount())
+                .venueAmount(ab.getVenueAmount())
+                .amount(amount)
+                .discount(BigDecimal.ZERO)
+                .netAssessable(netAssessable)
+                .gstAmount(gstAmount)
+                .invoiceTotal(invoiceTotal)
+                .invoiceTotalInWords(totalInWords)
+                .lineItems(lineItems)
+                .build();
+
+        log.debug("[InvoiceService] Invoice model populated -> customer: {}, service: {}, resource: {}, currency: {}, total: {}",
                 user.getName(), booking.getServiceName(), booking.getResourceName(),
                 ab.getCurrency() != null ? ab.getCurrency() : "INR", invoiceTotal);
 
-        return context;
+        return model;
+    }
+
+    /**
+     * One line item per child booking. The booking API lists child bookings without amounts, so the
+     * lines carry no price ({@code unitPrice} is null) and only the parent's slot subtotal is printed.
+     */
+    private List<BookingLineItem> buildStatementLineItems(BookingResponse booking) {
+        List<String> children = booking.getChildBookings();
+        String description = booking.getServiceName() + " - " + booking.getResourceName();
+
+        List<BookingLineItem> items = new ArrayList<>(children.size());
+        for (String child : children) {
+            items.add(new BookingLineItem(description + " (" + child + ")", "Slot", 1, null, null));
+        }
+        return items;
     }
 
     private BigDecimal safeAmount(BookingResponse booking) {
@@ -224,6 +456,21 @@ public class InvoiceService {
         return BigDecimal.ZERO;
     }
 
+    /** {@code templateKey} is the template actually used, after venue/default resolution. */
+    public record RenderedInvoice(
+            Long bookingId,
+            String invoiceNumber,
+            String templateKey,
+            byte[] pdfBytes
+    ) {}
+
+    private record PreparedInvoice(
+            Long bookingId,
+            String invoiceNumber,
+            String cloudinaryUrl
+    ) {}
+
+    /** {@code unitPrice} is null on statement lines, whose amounts are not known individually. */
     public record BookingLineItem(
             String description,
             String unitOfMeasure,
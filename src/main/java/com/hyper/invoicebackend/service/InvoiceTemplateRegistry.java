@@ -0,0 +1,106 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.config.InvoiceTemplateProperties;
+import com.hyper.invoicebackend.exception.InvalidRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of the document templates that can be selected per request.
+ * Definitions are resolved once from {@link InvoiceTemplateProperties}; parsed templates
+ * live in the engine's LRU template cache and are optionally warmed on startup.
+ */
+@Slf4j
+@Service
+public class InvoiceTemplateRegistry {
+
+    private static final InvoiceTemplate FALLBACK = new InvoiceTemplate("invoice", "invoice", "Tax Invoice", "INV", false);
+
+    private final SpringTemplateEngine templateEngine;
+    private final boolean preload;
+    private final String defaultKey;
+    private final Map<String, InvoiceTemplate> templates;
+
+    public InvoiceTemplateRegistry(SpringTemplateEngine templateEngine, InvoiceTemplateProperties properties) {
+        this.templateEngine = templateEngine;
+        this.preload = properties.isPreload();
+
+        Map<String, InvoiceTemplate> resolved = new LinkedHashMap<>();
+        properties.getDefinitions().forEach((key, def) -> resolved.put(key, new InvoiceTemplate(
+                key,
+                def.getTemplateName() != null ? def.getTemplateName() : key,
+                def.getTitle() != null ? def.getTitle() : FALLBACK.title(),
+                def.getDocumentType() != null ? def.getDocumentType() : FALLBACK.documentType(),
+                def.isStatement())));
+        resolved.putIfAbsent(FALLBACK.key(), FALLBACK);
+        this.templates = Map.copyOf(resolved);
+
+        this.defaultKey = templates.containsKey(properties.getDefaultTemplate())
+                ? properties.getDefaultTemplate() : FALLBACK.key();
+        log.info("[InvoiceTemplateRegistry] Registered {} templates: {} | default: '{}'",
+                templates.size(), resolved.keySet(), defaultKey);
+    }
+
+    /**
+     * Resolves a template key to its definition; a null/blank key yields the default template.
+     *
+     * @throws InvalidRequestException if the key is not registered; the message lists the valid keys
+     */
+    public InvoiceTemplate resolve(String key) {
+        if (key == null || key.isBlank()) {
+            return templates.get(defaultKey);
+        }
+        InvoiceTemplate template = templates.get(key);
+        if (template == null) {
+            log.warn("[InvoiceTemplateRegistry] Unknown template key: '{}' | available: {}", key, templates.keySet());
+            throw new InvalidRequestException("Unknown invoice template '" + key + "'; valid templates: "
+                    + String.join(", ", templates.keySet().stream().sorted().toList()));
+        }
+        return template;
+    }
+
+    public Set<String> keys() {
+        return templates.keySet();
+    }
+
+    /**
+     * Parses every registered template once so the first request per template does not
+     * pay the parse cost. Rendering against an empty context is enough to populate the cache.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadTemplates() {
+        if (!preload) {
+            log.info("[InvoiceTemplateRegistry] Template preloading disabled; templates will be parsed on first use");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        templates.values().stream()
+                .map(InvoiceTemplate::templateName)
+                .distinct()
+                .forEach(name -> {
+                    try {
+                        templateEngine.process(name, new Context());
+                        log.debug("[InvoiceTemplateRegistry] Preloaded template '{}'", name);
+                    } catch (Exception e) {
+                        log.warn("[InvoiceTemplateRegistry] Failed to preload template '{}' | error: {}", name, e.getMessage());
+                    }
+                });
+        log.info("[InvoiceTemplateRegistry] Preloaded templates in {} ms", System.currentTimeMillis() - start);
+    }
+
+    public record InvoiceTemplate(
+            String key,
+            String templateName,
+            String title,
+            String documentType,
+            boolean statement
+    ) {}
+}
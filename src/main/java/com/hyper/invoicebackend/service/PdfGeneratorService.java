@@ -1,14 +1,30 @@
 package com.hyper.invoicebackend.service;
 
+import com.hyper.invoicebackend.exception.DependencyUnavailableException;
 import com.hyper.invoicebackend.exception.PdfGenerationException;
-import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import com.hyper.invoicebackend.profiling.PdfRenderEvent;
+import com.hyper.invoicebackend.render.RenderWorkerPool;
+import com.hyper.invoicebackend.render.RenderWorkerUnavailableException;
+import com.hyper.invoicebackend.render.XhtmlPdfConverter;
+import com.hyper.invoicebackend.util.ThrottledTemplateReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.context.Context;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
 
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 @Slf4j
 @Service
@@ -16,9 +32,13 @@ import java.io.ByteArrayOutputStream;
 public class PdfGeneratorService {
 
     private final SpringTemplateEngine templateEngine;
+    private final RenderWorkerPool renderWorkerPool;
 
     /**
      * Generates a PDF from a Thymeleaf template.
+     * The template output is streamed in chunks straight into the renderer's XML parser,
+     * so large documents (e.g. statements with thousands of rows) never exist as one HTML String.
+     * With render workers enabled the template output is streamed into UTF-8 bytes for a worker instead.
      *
      * @param templateName the name of the Thymeleaf template (without .html extension)
      * @param context      the Thymeleaf context containing template variables
@@ -28,36 +48,125 @@ public class PdfGeneratorService {
         log.info("[PdfGeneratorService] Starting PDF generation | template: '{}'", templateName);
         long totalStart = System.currentTimeMillis();
         try {
-            // Step 1: Render Thymeleaf template to HTML
+            if (renderWorkerPool.isEnabled()) {
+                byte[] pdfBytes = toPdfOutOfProcess(renderTemplate(templateName, context), templateName);
+                log.info("[PdfGeneratorService] Total PDF generation time: {} ms", System.currentTimeMillis() - totalStart);
+                return pdfBytes;
+            }
+
+            // Step 1: Render Thymeleaf template and parse it into a DOM, chunk by chunk
             log.debug("[PdfGeneratorService] Rendering Thymeleaf template: '{}'...", templateName);
             long renderStart = System.currentTimeMillis();
-            String htmlContent = templateEngine.process(templateName, context);
-            log.info("[PdfGeneratorService] Template '{}' rendered in {} ms | HTML size: {} chars",
-                    templateName, System.currentTimeMillis() - renderStart, htmlContent.length());
+            Document document;
+            long htmlChars;
+            try (PdfRenderEvent event = new PdfRenderEvent(PdfRenderEvent.TEMPLATE, templateName);
+                 ThrottledTemplateReader reader =
+                         new ThrottledTemplateReader(templateEngine.processThrottled(templateName, context))) {
+                document = XhtmlPdfConverter.parse(new InputSource(reader));
+                htmlChars = reader.getCharsRead();
+                event.setHtmlChars(htmlChars);
+                event.succeeded();
+            }
+            log.info("[PdfGeneratorService] Template '{}' rendered and parsed in {} ms | HTML size: {} chars",
+                    templateName, System.currentTimeMillis() - renderStart, htmlChars);
 
             // Step 2: Convert HTML to PDF
-            log.info("[PdfGeneratorService] Converting rendered HTML to PDF (OpenHTMLToPDF)...");
-            long pdfStart = System.currentTimeMillis();
-            try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-                PdfRendererBuilder builder = new PdfRendererBuilder();
-                builder.useFastMode();
-                builder.withHtmlContent(htmlContent, null);
-                builder.toStream(outputStream);
-                log.debug("[PdfGeneratorService] PdfRendererBuilder configured, running renderer...");
-                builder.run();
-                byte[] pdfBytes = outputStream.toByteArray();
-                log.info("[PdfGeneratorService] PDF conversion complete in {} ms | PDF size: {} bytes (~{} KB)",
-                        System.currentTimeMillis() - pdfStart, pdfBytes.length, pdfBytes.length / 1024);
-                log.info("[PdfGeneratorService] Total PDF generation time: {} ms", System.currentTimeMillis() - totalStart);
-                return pdfBytes;
-            }
+            byte[] pdfBytes = toPdf(document, templateName);
+            log.info("[PdfGeneratorService] Total PDF generation time: {} ms", System.currentTimeMillis() - totalStart);
+            return pdfBytes;
+        } catch (DependencyUnavailableException e) {
+            // every render worker busy: shed the request rather than report a broken document
+            throw e;
         } catch (Exception e) {
             log.error("[PdfGeneratorService] PDF generation FAILED after {} ms | template: '{}' | error: {}",
                     System.currentTimeMillis() - totalStart, templateName, e.getMessage(), e);
             throw new PdfGenerationException("Failed to generate PDF: " + e.getMessage(), e);
         }
     }
-}
 
+    /**
+     * Generates a PDF from an already-built DOM (e.g. from {@link FastInvoiceRenderer}),
+     * skipping template rendering and parsing entirely.
+     *
+     * @param document the XHTML document to render
+     * @param label    name used in log lines, typically the template the document stands in for
+     * @return byte array of the generated PDF
+     */
+    public byte[] generatePdf(Document document, String label) {
+        log.info("[PdfGeneratorService] Starting PDF generation from prebuilt DOM | template: '{}'", label);
+        long totalStart = System.currentTimeMillis();
+        try {
+            byte[] pdfBytes = renderWorkerPool.isEnabled()
+                    ? toPdfOutOfProcess(serialize(document), label)
+                    : toPdf(document, label);
+            log.info("[PdfGeneratorService] Total PDF generation time: {} ms", System.currentTimeMillis() - totalStart);
+            return pdfBytes;
+        } catch (DependencyUnavailableException e) {
+            // every render worker busy: shed the request rather than report a broken document
+            throw e;
+        } catch (Exception e) {
+            log.error("[PdfGeneratorService] PDF generation FAILED after {} ms | template: '{}' | error: {}",
+                    System.currentTimeMillis() - totalStart, label, e.getMessage(), e);
+            throw new PdfGenerationException("Failed to generate PDF: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] toPdf(Document document, String label) throws Exception {
+        log.info("[PdfGeneratorService] Converting rendered HTML to PDF (OpenHTMLToPDF)...");
+        long pdfStart = System.currentTimeMillis();
+        try (PdfRenderEvent event = new PdfRenderEvent(PdfRenderEvent.CONVERT, label)) {
+            byte[] pdfBytes = XhtmlPdfConverter.toPdf(document);
+            event.setPdfBytes(pdfBytes.length);
+            event.succeeded();
+            log.info("[PdfGeneratorService] PDF conversion complete in {} ms | PDF size: {} bytes (~{} KB)",
+                    System.currentTimeMillis() - pdfStart, pdfBytes.length, pdfBytes.length / 1024);
+            return pdfBytes;
+        }
+    }
+
+    // ── Out-of-process conversion ────────────────────────────────────────────
+
+    private byte[] renderTemplate(String templateName, Context context) throws Exception {
+        log.debug("[PdfGeneratorService] Rendering Thymeleaf template: '{}' for a render worker...", templateName);
+        long renderStart = System.currentTimeMillis();
+        try (PdfRenderEvent event = new PdfRenderEvent(PdfRenderEvent.TEMPLATE, templateName)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+                templateEngine.process(templateName, context, writer);
+            }
+            byte[] xhtml = buffer.toByteArray();
+            event.setHtmlChars(xhtml.length);
+            event.succeeded();
+            log.info("[PdfGeneratorService] Template '{}' rendered in {} ms | HTML size: {} bytes",
+                    templateName, System.currentTimeMillis() - renderStart, xhtml.length);
+            return xhtml;
+        }
+    }
 
+    private static byte[] serialize(Document document) throws Exception {
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        transformer.transform(new DOMSource(document), new StreamResult(buffer));
+        return buffer.toByteArray();
+    }
 
+    private byte[] toPdfOutOfProcess(byte[] xhtml, String label) throws Exception {
+        log.info("[PdfGeneratorService] Converting rendered HTML to PDF on a render worker...");
+        long pdfStart = System.currentTimeMillis();
+        try (PdfRenderEvent event = new PdfRenderEvent(PdfRenderEvent.CONVERT, label)) {
+            byte[] pdfBytes = renderWorkerPool.render(xhtml, label);
+            event.setPdfBytes(pdfBytes.length);
+            event.succeeded();
+            log.info("[PdfGeneratorService] PDF conversion complete in {} ms | PDF size: {} bytes (~{} KB)",
+                    System.currentTimeMillis() - pdfStart, pdfBytes.length, pdfBytes.length / 1024);
+            return pdfBytes;
+        } catch (RenderWorkerUnavailableException e) {
+            if (!renderWorkerPool.isFallbackInProcess()) {
+                throw e;
+            }
+            log.warn("[PdfGeneratorService] {} | converting '{}' in-process", e.getMessage(), label);
+            return toPdf(XhtmlPdfConverter.parse(new InputSource(new ByteArrayInputStream(xhtml))), label);
+        }
+    }
+}
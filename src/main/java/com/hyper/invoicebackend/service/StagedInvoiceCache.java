@@ -0,0 +1,181 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.config.PregenerationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Invoices rendered ahead of time by {@link InvoicePregenerationService}, keyed by booking ID. Only the
+ * rendered PDF is staged, in memory; it is uploaded when the invoice is actually requested, so expired
+ * or evicted entries leave nothing behind. Each staged invoice is handed out at most once: a later request
+ * for the same booking generates a fresh invoice as before. Entries expire after {@code ttl}, which bounds
+ * how stale a served invoice can be — a booking changed within the TTL is still served as staged.
+ * The oldest entries are evicted beyond {@code max-staged}.
+ */
+@Slf4j
+@Component
+public class StagedInvoiceCache {
+
+    private final Duration ttl;
+    private final Duration awaitInFlight;
+    private final Clock clock = Clock.systemUTC();
+    private final Map<Long, Entry> entries;
+    /** Bookings already requested, so a late pre-generation does not stage an invoice nobody will take. */
+    private final Map<Long, Instant> requested;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public StagedInvoiceCache(PregenerationProperties properties, MeterRegistry meterRegistry) {
+        this.ttl = properties.getTtl();
+        this.awaitInFlight = properties.getAwaitInFlight();
+        int maxStaged = properties.getMaxStaged();
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxStaged;
+            }
+        };
+        this.requested = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Instant> eldest) {
+                return size() > maxStaged;
+            }
+        };
+        this.hits = Counter.builder("invoice.pregeneration.lookups")
+                .tag("result", "hit")
+                .description("Generate requests served from a pre-generated invoice")
+                .register(meterRegistry);
+        this.misses = Counter.builder("invoice.pregeneration.lookups")
+                .tag("result", "miss")
+                .description("Generate requests with no usable pre-generated invoice")
+                .register(meterRegistry);
+        Gauge.builder("invoice.pregeneration.staged", this, StagedInvoiceCache::size)
+                .description("Pre-generated invoices staged or in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims the slot for a booking before pre-generating it.
+     *
+     * @return the future to complete with the prepared invoice, or empty if the booking is already
+     *         staged, being staged, or was requested within the TTL
+     */
+    Optional<CompletableFuture<InvoiceService.RenderedInvoice>> reserve(Long bookingId, String templateKey) {
+        synchronized (entries) {
+            Instant requestedAt = requested.get(bookingId);
+            if (requestedAt != null && requestedAt.plus(ttl).isAfter(clock.instant())) {
+                return Optional.empty();
+            }
+            Entry existing = entries.get(bookingId);
+            if (existing != null && !isExpired(existing) && !existing.future().isCompletedExceptionally()) {
+                return Optional.empty();
+            }
+            Entry entry = new Entry(templateKey, clock.instant(), new CompletableFuture<>());
+            entries.put(bookingId, entry);
+            return Optional.of(entry.future());
+        }
+    }
+
+    /**
+     * Drops whatever is staged for a booking that is being invoiced from fresher data (a complete pushed
+     * payload), and marks it requested so a pre-generation still in progress is not staged afterwards.
+     */
+    public void discard(Long bookingId) {
+        synchronized (entries) {
+            requested.put(bookingId, clock.instant());
+            if (entries.remove(bookingId) != null) {
+                log.info("[StagedInvoiceCache] Discarded staged invoice for bookingId: {}", bookingId);
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the staged invoice for a booking if it was rendered with the requested template
+     * and has not expired. A request without a template only matches an invoice staged without one (both
+     * resolve the template the same way); a named template matches the template the invoice was rendered
+     * with. A staging still in progress is awaited for up to {@code await-in-flight}, since finishing it is
+     * cheaper than starting over.
+     */
+    public Optional<InvoiceService.RenderedInvoice> take(Long bookingId, String templateKey) {
+        Entry entry;
+        synchronized (entries) {
+            requested.put(bookingId, clock.instant());
+            entry = entries.get(bookingId);
+            if (entry == null || !mayMatch(entry, templateKey)) {
+                misses.increment();
+                return Optional.empty();
+            }
+            if (isExpired(entry)) {
+                entries.remove(bookingId);
+                log.info("[StagedInvoiceCache] Staged invoice for bookingId: {} expired (staged at {})",
+                        bookingId, entry.stagedAt());
+                misses.increment();
+                return Optional.empty();
+            }
+        }
+        InvoiceService.RenderedInvoice rendered = await(bookingId, entry);
+        if (rendered == null || templateKey != null && !templateKey.equals(rendered.templateKey())) {
+            misses.increment();
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            // handed out once, even if two requests for the booking raced here
+            if (!entries.remove(bookingId, entry)) {
+                misses.increment();
+                return Optional.empty();
+            }
+        }
+        hits.increment();
+        return Optional.of(rendered);
+    }
+
+    private static boolean mayMatch(Entry entry, String templateKey) {
+        if (templateKey == null) {
+            return entry.templateKey() == null;
+        }
+        return entry.templateKey() == null || templateKey.equals(entry.templateKey());
+    }
+
+    private InvoiceService.RenderedInvoice await(Long bookingId, Entry entry) {
+        try {
+            if (!entry.future().isDone()) {
+                log.info("[StagedInvoiceCache] Pre-generation in progress for bookingId: {}, waiting up to {}",
+                        bookingId, awaitInFlight);
+            }
+            return entry.future().get(awaitInFlight.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.info("[StagedInvoiceCache] Pre-generated invoice unusable for bookingId: {} | {}",
+                    bookingId, e instanceof TimeoutException ? "still in progress" : e.getCause().getMessage());
+        }
+        return null;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return entry.stagedAt().plus(ttl).isBefore(clock.instant());
+    }
+
+    private record Entry(String templateKey, Instant stagedAt, CompletableFuture<InvoiceService.RenderedInvoice> future) {}
+}
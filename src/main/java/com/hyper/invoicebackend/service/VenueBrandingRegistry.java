@@ -0,0 +1,79 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.config.VenueBrandingProperties;
+import com.hyper.invoicebackend.dto.BookingResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the branding printed on a venue's documents (issuer, GSTIN, address, SAC code,
+ * preferred template). Each configured venue's merged defaults + overrides are computed once and
+ * cached; the booking's resource name fills in the venue name per request when none is configured.
+ * A venue template that is not a registered template key fails startup rather than every request
+ * for that venue.
+ */
+@Slf4j
+@Service
+public class VenueBrandingRegistry {
+
+    private final VenueBrandingProperties properties;
+    private final Map<Long, VenueBranding> cache = new ConcurrentHashMap<>();
+    private final VenueBranding defaults;
+
+    public VenueBrandingRegistry(VenueBrandingProperties properties, InvoiceTemplateRegistry templateRegistry) {
+        this.properties = properties;
+        properties.getVenues().forEach((resourceId, venue) -> {
+            if (venue.getTemplate() != null && !templateRegistry.keys().contains(venue.getTemplate())) {
+                throw new IllegalStateException("invoice.branding.venues." + resourceId + ".template '"
+                        + venue.getTemplate() + "' is not a registered template; valid templates: "
+                        + String.join(", ", templateRegistry.keys().stream().sorted().toList()));
+            }
+        });
+        this.defaults = build(null);
+        log.info("[VenueBrandingRegistry] Initialized | default issuer: '{}', venue overrides: {}",
+                properties.getIssuerName(), properties.getVenues().keySet());
+    }
+
+    public VenueBranding resolve(BookingResponse booking) {
+        Long resourceId = booking.getResourceId();
+        VenueBranding branding = resourceId == null || !properties.getVenues().containsKey(resourceId)
+                ? defaults
+                : cache.computeIfAbsent(resourceId, id -> build(properties.getVenues().get(id)));
+        return branding.venueName() != null ? branding : branding.withVenueName(booking.getResourceName());
+    }
+
+    /** Configuration only — never booking data, since the result is shared across bookings. */
+    private VenueBranding build(VenueBrandingProperties.Venue venue) {
+        if (venue == null) {
+            return new VenueBranding(properties.getIssuerName(), null,
+                    null, null, null, null, properties.getSacCode(), null);
+        }
+        return new VenueBranding(
+                venue.getIssuerName() != null ? venue.getIssuerName() : properties.getIssuerName(),
+                venue.getVenueName(),
+                venue.getGstin(),
+                venue.getAddress(),
+                venue.getState(),
+                venue.getPlaceOfSupply() != null ? venue.getPlaceOfSupply() : venue.getState(),
+                venue.getSacCode() != null ? venue.getSacCode() : properties.getSacCode(),
+                venue.getTemplate());
+    }
+
+    public record VenueBranding(
+            String issuerName,
+            String venueName,
+            String gstin,
+            String address,
+            String state,
+            String placeOfSupply,
+            String sacCode,
+            String template
+    ) {
+        VenueBranding withVenueName(String name) {
+            return new VenueBranding(issuerName, name, gstin, address, state, placeOfSupply, sacCode, template);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.hyper.invoicebackend.util;
+
+import org.thymeleaf.IThrottledTemplateProcessor;
+
+import java.io.CharArrayWriter;
+import java.io.Reader;
+
+/**
+ * Exposes a throttled Thymeleaf processor as a {@link Reader}, so rendered HTML is pulled
+ * chunk by chunk by whoever consumes it (e.g. the PDF renderer's parser) instead of being
+ * materialized as one String. Only one chunk is buffered at a time.
+ */
+public class ThrottledTemplateReader extends Reader {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+
+    private final IThrottledTemplateProcessor processor;
+    private final int chunkSize;
+    private final CharArrayWriter buffer;
+
+    private char[] chunk = new char[0];
+    private int position;
+    private long charsRead;
+
+    public ThrottledTemplateReader(IThrottledTemplateProcessor processor) {
+        this(processor, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ThrottledTemplateReader(IThrottledTemplateProcessor processor, int chunkSize) {
+        this.processor = processor;
+        this.chunkSize = chunkSize;
+        this.buffer = new CharArrayWriter(chunkSize + 256);
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        while (position >= chunk.length) {
+            if (processor.isFinished()) {
+                return -1;
+            }
+            buffer.reset();
+            processor.process(chunkSize, buffer);
+            chunk = buffer.toCharArray();
+            position = 0;
+        }
+        int n = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, cbuf, off, n);
+        position += n;
+        charsRead += n;
+        return n;
+    }
+
+    /** Total number of characters handed out so far. */
+    public long getCharsRead() {
+        return charsRead;
+    }
+
+    @Override
+    public void close() {
+        chunk = new char[0];
+        position = 0;
+    }
+}
@@ -0,0 +1,104 @@
+package com.hyper.invoicebackend.client;
+
+import com.hyper.invoicebackend.dto.BookingResponse;
+import com.hyper.invoicebackend.exception.DependencyUnavailableException;
+import com.hyper.invoicebackend.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingFetchCoalescerTest {
+
+    @Test
+    void concurrentRequestsForSameIdShareOneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        try (BookingFetchCoalescer coalescer = new BookingFetchCoalescer("bookingApi", id -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            return booking(id);
+        }, null, Duration.ZERO, 50, 4, 16, Duration.ofSeconds(5), meterRegistry)) {
+            List<CompletableFuture<BookingResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(coalescer.submit(7L));
+            }
+            release.countDown();
+            for (CompletableFuture<BookingResponse> future : futures) {
+                assertEquals(7L, future.get().getId());
+            }
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(19, meterRegistry.counter("booking.fetch.coalesced").count());
+    }
+
+    @Test
+    void distinctIdsWithinWindowAreSentAsOneBatch() throws Exception {
+        List<List<Long>> batches = Collections.synchronizedList(new ArrayList<>());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        try (BookingFetchCoalescer coalescer = new BookingFetchCoalescer("bookingApi",
+                id -> { throw new AssertionError("single fetch should not be used"); },
+                ids -> {
+                    batches.add(ids);
+                    return ids.stream().filter(id -> id != 3L).map(BookingFetchCoalescerTest::booking).toList();
+                },
+                Duration.ofMillis(200), 50, 4, 16, Duration.ofSeconds(5), meterRegistry)) {
+            CompletableFuture<BookingResponse> first = coalescer.submit(1L);
+            CompletableFuture<BookingResponse> second = coalescer.submit(2L);
+            CompletableFuture<BookingResponse> missing = coalescer.submit(3L);
+
+            assertEquals(1L, first.get().getId());
+            assertEquals(2L, second.get().getId());
+            CompletionException notFound = assertThrows(CompletionException.class, missing::join);
+            assertInstanceOf(ResourceNotFoundException.class, notFound.getCause());
+        }
+
+        assertEquals(List.of(1L, 2L, 3L), batches.get(0));
+        assertEquals(3.0, meterRegistry.summary("booking.fetch.batch.size").max());
+    }
+
+    @Test
+    void rejectsLookupsBeyondQueueInsteadOfWaiting() {
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (BookingFetchCoalescer coalescer = new BookingFetchCoalescer("bookingApi", id -> {
+            await(release);
+            return booking(id);
+        }, null, Duration.ZERO, 50, 1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry())) {
+            coalescer.submit(1L); // running
+            coalescer.submit(2L); // queued
+
+            assertThrows(DependencyUnavailableException.class, () -> coalescer.get(3L));
+            release.countDown();
+        }
+    }
+
+    private static BookingResponse booking(Long id) {
+        BookingResponse booking = new BookingResponse();
+        booking.setId(id);
+        return booking;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
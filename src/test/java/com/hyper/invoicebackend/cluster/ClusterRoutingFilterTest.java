@@ -0,0 +1,188 @@
+package com.hyper.invoicebackend.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hyper.invoicebackend.config.ClusterProperties;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.RestClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two-node cluster: the filter under test is {@code SELF}; the peer is a local HTTP server that
+ * records what it receives.
+ */
+class ClusterRoutingFilterTest {
+
+    private static final String SELF = "http://localhost:1";
+
+    private HttpServer peerServer;
+    private String peer;
+    private final AtomicInteger peerHits = new AtomicInteger();
+    private final List<String> peerForwardedBy = new CopyOnWriteArrayList<>();
+    private volatile Headers peerHeaders;
+    private volatile long peerDelayMillis;
+
+    private ClusterMembership membership;
+    private ClusterRoutingFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        peerServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peerServer.createContext("/", exchange -> {
+            peerHits.incrementAndGet();
+            peerHeaders = exchange.getRequestHeaders();
+            peerForwardedBy.add(exchange.getRequestHeaders().getFirst(ClusterRoutingFilter.FORWARDED_HEADER));
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(peerDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] reply = "{\"servedBy\":\"peer\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(201, reply.length);
+            exchange.getResponseBody().write(reply);
+            exchange.close();
+        });
+        peerServer.start();
+        peer = "http://localhost:" + peerServer.getAddress().getPort();
+
+        ClusterProperties properties = properties(SELF);
+        membership = new ClusterMembership(properties, RestClient.builder(), new SimpleMeterRegistry());
+        filter = new ClusterRoutingFilter(membership, properties, new ObjectMapper(), RestClient.builder());
+    }
+
+    private ClusterProperties properties(String self) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setSelf(self);
+        properties.setPeers(List.of(SELF, peer));
+        properties.setSecret("cluster-test-secret");
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+        properties.setForwardReadTimeout(Duration.ofMillis(300));
+        return properties;
+    }
+
+    @AfterEach
+    void tearDown() {
+        membership.shutdown();
+        peerServer.stop(0);
+    }
+
+    @Test
+    void forwardsToOwningPeerAndRelaysItsResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(generate(bookingOwnedBy(peer)), response, chain);
+
+        assertNull(chain.getRequest(), "peer-owned booking must not be served here");
+        assertEquals(1, peerHits.get());
+        assertEquals(List.of(SELF), peerForwardedBy);
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"servedBy\":\"peer\"}", response.getContentAsString());
+        assertEquals(peer, response.getHeader(ClusterRoutingFilter.SERVED_BY_HEADER));
+    }
+
+    @Test
+    void servesLocallyWhenThisNodeOwnsTheBooking() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(generate(bookingOwnedBy(SELF)), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0, peerHits.get());
+        assertEquals(SELF, response.getHeader(ClusterRoutingFilter.SERVED_BY_HEADER));
+    }
+
+    @Test
+    void answers504WithoutRetryWhenOwnerTimesOut() throws Exception {
+        peerDelayMillis = 1_000;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(generate(bookingOwnedBy(peer)), response, chain);
+
+        assertEquals(504, response.getStatus());
+        assertNull(chain.getRequest(), "owner may still be generating; must not also render here");
+        assertEquals(1, peerHits.get());
+        assertTrue(membership.isPeer(peer));
+        assertEquals(peer, membership.ownerOf(bookingOwnedBy(peer)), "a slow owner stays on the ring");
+    }
+
+    @Test
+    void routesRequestsClaimingToBeForwardedWithoutValidSignature() throws Exception {
+        MockHttpServletRequest request = generate(bookingOwnedBy(peer));
+        request.addHeader(ClusterRoutingFilter.FORWARDED_HEADER, peer);
+        request.addHeader(ClusterRoutingFilter.FORWARD_TIMESTAMP_HEADER, String.valueOf(System.currentTimeMillis() / 1000));
+        request.addHeader(ClusterRoutingFilter.FORWARD_SIGNATURE_HEADER, "00".repeat(32));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(chain.getRequest(), "spoofed forwarding header must not bypass routing");
+        assertEquals(1, peerHits.get());
+    }
+
+    @Test
+    void ownerServesSignedForwardEvenIfItsRingDisagrees() throws Exception {
+        // the peer hashes with fewer virtual nodes, so some bookings SELF sends it are SELF's in its view
+        ClusterProperties peerProperties = properties(peer);
+        peerProperties.setVirtualNodes(4);
+        ClusterMembership peerMembership = new ClusterMembership(peerProperties, RestClient.builder(), new SimpleMeterRegistry());
+        try {
+            ClusterRoutingFilter peerFilter = new ClusterRoutingFilter(peerMembership, peerProperties, new ObjectMapper(), RestClient.builder());
+            long bookingId = LongStream.rangeClosed(1, 1_000)
+                    .filter(id -> membership.ownerOf(id).equals(peer) && peerMembership.ownerOf(id).equals(SELF))
+                    .findFirst()
+                    .orElseThrow();
+            filter.doFilter(generate(bookingId), new MockHttpServletResponse(), new MockFilterChain());
+
+            // replay what the peer received into the peer's own filter
+            MockHttpServletRequest forwarded = generate(bookingId);
+            peerHeaders.forEach((name, values) -> values.forEach(value -> forwarded.addHeader(name, value)));
+            MockFilterChain chain = new MockFilterChain();
+
+            peerFilter.doFilter(forwarded, new MockHttpServletResponse(), chain);
+
+            assertNotNull(chain.getRequest(), "signed forward from a peer is served where it lands");
+            assertEquals(SELF, peerMembership.ownerOf(bookingId), "no forward back to SELF was attempted");
+        } finally {
+            peerMembership.shutdown();
+        }
+    }
+
+    private long bookingOwnedBy(String node) {
+        return LongStream.rangeClosed(1, 1_000)
+                .filter(id -> membership.ownerOf(id).equals(node))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static MockHttpServletRequest generate(long bookingId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/invoices/generate");
+        request.setContentType("application/json");
+        request.setContent(("{\"bookingId\":" + bookingId + "}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,45 @@
+package com.hyper.invoicebackend.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of(
+            "http://localhost:8081", "http://localhost:8082", "http://localhost:8083");
+    private static final int KEYS = 30_000;
+
+    @Test
+    void spreadsKeysEvenlyAndAgreesAcrossInstances() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing sameOnOtherNode = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (long bookingId = 1; bookingId <= KEYS; bookingId++) {
+            String owner = ring.owner(bookingId);
+            assertEquals(owner, sameOnOtherNode.owner(bookingId));
+            counts.merge(owner, 1, Integer::sum);
+        }
+        counts.values().forEach(count ->
+                assertTrue(count > KEYS / 3 * 0.8 && count < KEYS / 3 * 1.2, "uneven spread: " + counts));
+    }
+
+    @Test
+    void removingNodeOnlyMovesItsKeys() {
+        ConsistentHashRing full = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing withoutFirst = new ConsistentHashRing(NODES.subList(1, 3), 128);
+
+        for (long bookingId = 1; bookingId <= KEYS; bookingId++) {
+            String before = full.owner(bookingId);
+            if (!before.equals(NODES.get(0))) {
+                assertEquals(before, withoutFirst.owner(bookingId), "key " + bookingId + " moved needlessly");
+            }
+        }
+    }
+}
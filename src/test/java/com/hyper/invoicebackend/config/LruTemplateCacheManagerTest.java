@@ -0,0 +1,44 @@
+package com.hyper.invoicebackend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LruTemplateCacheManagerTest {
+
+    @Test
+    void evictsLeastRecentlyUsedTemplateOnceFull() {
+        LruTemplateCacheManager.LruCache<String, String> cache = new LruTemplateCacheManager.LruCache<>(2, null);
+        cache.put("invoice", "parsed invoice");
+        cache.put("receipt", "parsed receipt");
+
+        cache.get("invoice");
+        cache.put("statement", "parsed statement");
+
+        assertEquals(Set.of("invoice", "statement"), cache.keySet());
+        assertNull(cache.get("receipt"));
+        assertEquals("parsed invoice", cache.get("invoice"));
+    }
+
+    @Test
+    void dropsEntriesTheValidityCheckerRejects() {
+        LruTemplateCacheManager.LruCache<String, String> cache =
+                new LruTemplateCacheManager.LruCache<>(2, (key, value, now) -> !value.startsWith("stale"));
+        cache.put("invoice", "stale invoice");
+        cache.put("receipt", "parsed receipt");
+
+        assertNull(cache.get("invoice"));
+        assertEquals(Set.of("receipt"), cache.keySet());
+        assertEquals("parsed receipt", cache.get("receipt"));
+    }
+
+    @Test
+    void managerBacksTheTemplateCacheWithTheLruCache() {
+        LruTemplateCacheManager manager = new LruTemplateCacheManager(1);
+
+        assertEquals(LruTemplateCacheManager.LruCache.class, manager.getTemplateCache().getClass());
+    }
+}
@@ -0,0 +1,24 @@
+package com.hyper.invoicebackend.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+    @Test
+    void dependencyUnavailableAnswers503WithRetryAfter() {
+        DependencyUnavailableException ex = new DependencyUnavailableException("cloudinary", "circuit breaker is OPEN", 30, null);
+
+        ResponseEntity<Map<String, Object>> response = new GlobalExceptionHandler().handleDependencyUnavailableException(ex);
+
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("30", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Dependency Unavailable", response.getBody().get("error"));
+        assertEquals("cloudinary is temporarily unavailable: circuit breaker is OPEN", response.getBody().get("message"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.hyper.invoicebackend.render;
+
+import com.hyper.invoicebackend.config.RenderWorkerProperties;
+import com.hyper.invoicebackend.exception.DependencyUnavailableException;
+import com.hyper.invoicebackend.service.PdfGeneratorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.xml.sax.InputSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Spawns a real worker JVM from the test classpath.
+ */
+class RenderWorkerPoolTest {
+
+    private static final byte[] XHTML = ("<html><head><title>t</title></head>"
+            + "<body><p>Invoice INV-1</p></body></html>").getBytes(StandardCharsets.UTF_8);
+
+    private SimpleMeterRegistry meterRegistry;
+    private RenderWorkerPool pool;
+
+    @BeforeEach
+    void setUp() {
+        RenderWorkerProperties properties = new RenderWorkerProperties();
+        properties.setEnabled(true);
+        properties.setCount(1);
+        properties.setHealthCheckInterval(Duration.ofMinutes(10));
+        properties.setAcquireTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new RenderWorkerPool(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void rendersOnWorkerAndRecoversFromCrash() throws Exception {
+        assertPdf(pool.render(XHTML, "test"));
+
+        ProcessHandle.current().children().forEach(child -> {
+            child.destroyForcibly();
+            child.onExit().join();
+        });
+
+        assertPdf(pool.render(XHTML, "test"));
+        assertEquals(1.0, meterRegistry.get("render.workers.restarts").counter().count());
+    }
+
+    @Test
+    void busyPoolRejectsInsteadOfConvertingInProcess() throws Exception {
+        StringBuilder rows = new StringBuilder("<html><head><title>t</title></head><body>");
+        for (int i = 0; i < 5_000; i++) {
+            rows.append("<p>Slot ").append(i).append("</p>");
+        }
+        byte[] large = rows.append("</body></html>").toString().getBytes(StandardCharsets.UTF_8);
+        PdfGeneratorService pdfGeneratorService = new PdfGeneratorService(new SpringTemplateEngine(), pool);
+
+        CompletableFuture<byte[]> busy = CompletableFuture.supplyAsync(() -> pool.render(large, "large"));
+        Thread.sleep(100);
+        long start = System.nanoTime();
+
+        DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class, () ->
+                pdfGeneratorService.generatePdf(XhtmlPdfConverter.parse(
+                        new InputSource(new ByteArrayInputStream(XHTML))), "test"));
+
+        assertFalse(busy.isDone(), "the large render must still hold the only worker");
+        assertEquals(RenderWorkerPool.DEPENDENCY, e.getDependency());
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos(), "rejected after acquire-timeout");
+        assertPdf(busy.get());
+    }
+
+    private static void assertPdf(byte[] bytes) {
+        assertTrue(bytes.length > 0 && new String(bytes, 0, 5, StandardCharsets.US_ASCII).equals("%PDF-"),
+                "expected a PDF");
+    }
+}
@@ -0,0 +1,92 @@
+package com.hyper.invoicebackend.resilience;
+
+import com.hyper.invoicebackend.config.ResilienceProperties;
+import com.hyper.invoicebackend.exception.DependencyUnavailableException;
+import com.hyper.invoicebackend.exception.ResourceNotFoundException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DependencyGuardsTest {
+
+    private final ResilienceProperties properties = new ResilienceProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void failuresOpenTheCircuitAndLaterCallsFailFast() {
+        ResilienceProperties.Dependency settings = properties.getBookingApi();
+        settings.setSlidingWindowSize(4);
+        settings.setMinimumNumberOfCalls(4);
+        settings.setWaitDurationInOpenState(Duration.ofSeconds(20));
+        DependencyGuard guard = new DependencyGuards(properties, meterRegistry).bookingApi();
+
+        assertThrows(ResourceNotFoundException.class, () -> guard.run(() -> {
+            throw new ResourceNotFoundException("Booking not found with id: 1");
+        }));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.run(() -> {
+                throw new IllegalStateException("booking API down");
+            }));
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+                () -> guard.run(calls::incrementAndGet));
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState(), "not-found outcomes are not failures");
+        assertEquals(0, calls.get(), "open circuit must not call the dependency");
+        assertEquals(DependencyGuards.BOOKING_API, e.getDependency());
+        assertEquals(20, e.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("invoice.dependency.circuit.transitions",
+                "name", DependencyGuards.BOOKING_API, "from", "CLOSED", "to", "OPEN").count());
+        assertEquals(CircuitBreaker.State.CLOSED, new DependencyGuards(new ResilienceProperties(), meterRegistry)
+                .cloudinary().getState(), "each dependency has its own circuit");
+    }
+
+    @Test
+    void slowCallsOpenTheCircuitAtTheirOwnThreshold() {
+        ResilienceProperties.Dependency settings = properties.getCloudinary();
+        settings.setFailureRateThreshold(100);
+        settings.setSlowCallRateThreshold(50);
+        settings.setSlowCallDuration(Duration.ofMillis(1));
+        settings.setSlidingWindowSize(4);
+        settings.setMinimumNumberOfCalls(4);
+        DependencyGuard guard = new DependencyGuards(properties, meterRegistry).cloudinary();
+
+        guard.run(() -> sleep(20));
+        guard.run(() -> { });
+        guard.run(() -> sleep(20));
+        guard.run(() -> { });
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+    }
+
+    @Test
+    void fullBulkheadRejectsWithoutOpeningTheCircuit() {
+        properties.getCloudinary().setMaxConcurrentCalls(1);
+        DependencyGuard guard = new DependencyGuards(properties, meterRegistry).cloudinary();
+
+        DependencyUnavailableException e = guard.call(() ->
+                assertThrows(DependencyUnavailableException.class, () -> guard.run(() -> { })));
+
+        assertTrue(e.getMessage().contains("too many concurrent calls (max 1)"), e.getMessage());
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+        guard.run(() -> { });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
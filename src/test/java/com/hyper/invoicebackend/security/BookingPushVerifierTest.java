@@ -0,0 +1,93 @@
+package com.hyper.invoicebackend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hyper.invoicebackend.dto.BookingResponse;
+import com.hyper.invoicebackend.exception.InvalidRequestException;
+import com.hyper.invoicebackend.exception.InvalidSignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingPushVerifierTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+    private static final byte[] BODY = """
+            {"id":42,"reference":"REF-42","bookingDate":"2026-03-01",
+             "user":{"name":"Asha"},"amountBreakdown":{"totalAmount":1180.00}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final BookingPushVerifier verifier = new BookingPushVerifier(
+            new ObjectMapper().registerModule(new JavaTimeModule()), "s3cret", Duration.ofMinutes(5),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void acceptsSignedPayload() {
+        String timestamp = String.valueOf(NOW.getEpochSecond() - 30);
+        String signature = "sha256=" + HexFormat.of().formatHex(verifier.sign(timestamp, null, BODY));
+
+        BookingResponse booking = verifier.verify(BODY, timestamp, signature, null);
+
+        assertEquals(42L, booking.getId());
+        assertEquals(LocalDate.of(2026, 3, 1), booking.getBookingDate());
+        assertEquals("Asha", booking.getUser().getName());
+    }
+
+    @Test
+    void rejectsTamperedBodyAndStaleTimestamp() {
+        String timestamp = String.valueOf(NOW.getEpochSecond());
+        String signature = HexFormat.of().formatHex(verifier.sign(timestamp, null, BODY));
+        byte[] tampered = new String(BODY, StandardCharsets.UTF_8).replace("1180.00", "1.00")
+                .getBytes(StandardCharsets.UTF_8);
+        assertThrows(InvalidSignatureException.class, () -> verifier.verify(tampered, timestamp, signature, null));
+        assertThrows(InvalidSignatureException.class, () -> verifier.verify(BODY, timestamp, signature, "receipt"),
+                "template is covered by the signature");
+
+        String stale = String.valueOf(NOW.getEpochSecond() - 600);
+        String staleSignature = HexFormat.of().formatHex(verifier.sign(stale, null, BODY));
+        assertThrows(InvalidSignatureException.class, () -> verifier.verify(BODY, stale, staleSignature, null));
+    }
+
+    @Test
+    void rejectsReplayOfAcceptedRequest() {
+        String timestamp = String.valueOf(NOW.getEpochSecond());
+        String signature = HexFormat.of().formatHex(verifier.sign(timestamp, "invoice", BODY));
+
+        verifier.verify(BODY, timestamp, signature, "invoice");
+
+        assertThrows(InvalidSignatureException.class, () -> verifier.verify(BODY, timestamp, signature, "invoice"));
+    }
+
+    @Test
+    void malformedBodyDoesNotConsumeSignature() {
+        byte[] malformed = "{\"id\":42,".getBytes(StandardCharsets.UTF_8);
+        String timestamp = String.valueOf(NOW.getEpochSecond());
+        String signature = HexFormat.of().formatHex(verifier.sign(timestamp, null, malformed));
+
+        assertThrows(InvalidRequestException.class, () -> verifier.verify(malformed, timestamp, signature, null));
+        assertThrows(InvalidRequestException.class, () -> verifier.verify(malformed, timestamp, signature, null),
+                "a retry is still answered as malformed, not as already processed");
+    }
+
+    @Test
+    void releasedSignatureMayBeRetried() {
+        String timestamp = String.valueOf(NOW.getEpochSecond());
+        String signature = "sha256=" + HexFormat.of().formatHex(verifier.sign(timestamp, null, BODY)).toUpperCase();
+        verifier.verify(BODY, timestamp, signature, null);
+
+        // generation failed downstream
+        verifier.release(signature);
+
+        assertEquals(42L, verifier.verify(BODY, timestamp, signature, null).getId());
+        assertThrows(InvalidSignatureException.class, () -> verifier.verify(BODY, timestamp, signature, null));
+    }
+}
@@ -0,0 +1,43 @@
+package com.hyper.invoicebackend.security;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ManagementTokenFilterTest {
+
+    private final ManagementTokenFilter filter = new ManagementTokenFilter("/actuator", "s3cret");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/actuator/jfr", "/actuator/jfr;x=1", "/actuator/jfr;", "/actuator//jfr", "/actuator/%6Afr"})
+    void rejectsJfrVariantsWithoutToken(String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest(), "request must not reach the endpoint");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/actuator/jfr;x=1", "/actuator/health"})
+    void passesValidTokenAndOtherEndpoints(String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (uri.contains("jfr")) {
+            request.addHeader(ManagementTokenFilter.TOKEN_HEADER, "s3cret");
+        }
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+}
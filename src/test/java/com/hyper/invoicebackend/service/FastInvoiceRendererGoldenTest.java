@@ -0,0 +1,223 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.render.XhtmlPdfConverter;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keeps {@link FastInvoiceRenderer} equivalent to the Thymeleaf {@code invoice.html} template.
+ * Both outputs are normalized (comments and whitespace not touching an inline element dropped, other
+ * whitespace collapsed to one space, attributes sorted) and compared with each other and with the golden files under
+ * {@code src/test/resources/golden}; the text of the PDFs rendered from both must match as well.
+ * Regenerate the golden files after an intended markup change with {@code -Dgolden.update=true}.
+ */
+class FastInvoiceRendererGoldenTest {
+
+    private static final Path GOLDEN_DIR = Path.of("src/test/resources/golden");
+    /** Elements in this template that flow inline, so whitespace next to them renders. */
+    private static final Set<String> INLINE_ELEMENTS = Set.of("span", "br", "a", "b", "strong", "em", "i");
+
+    private static SpringTemplateEngine templateEngine;
+    private static FastInvoiceRenderer fastRenderer;
+    private static Locale originalLocale;
+
+    @BeforeAll
+    static void setUp() {
+        // formatDecimal follows the default locale; pin it so the golden files are portable
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.ENGLISH);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        fastRenderer = new FastInvoiceRenderer(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Locale.setDefault(originalLocale);
+    }
+
+    @Test
+    void fullInvoiceMatchesTemplate() throws Exception {
+        InvoiceModel model = baseModel()
+                .customerEmail("asha@example.com")
+                .customerPhone("+91 9876543210")
+                .venueName("Green Turf")
+                .venueGstin("29ABCDE1234F1Z5")
+                .venueAddress("12 MG Road, Bengaluru")
+                .venueState("Karnataka")
+                .placeOfSupply("Karnataka")
+                .sacCode("998552")
+                .platformFee(new BigDecimal("50.00"))
+                .platformFeePercent(new BigDecimal("5"))
+                .lineItems(List.of(
+                        new InvoiceService.BookingLineItem("Turf Booking - Slot 1", "Slot", 1,
+                                new BigDecimal("500.005"), null),
+                        new InvoiceService.BookingLineItem("Turf Booking - Slot 2 & lights", null, 2,
+                                new BigDecimal("250"), new BigDecimal("10.5"))))
+                .build();
+
+        String pdfText = assertEquivalent("invoice-full", model);
+        assertTrue(pdfText.contains("Invoice To: Asha <Rao>"), "label and value must be separated:\n" + pdfText);
+    }
+
+    @Test
+    void minimalInvoiceWithoutLineItemsMatchesTemplate() throws Exception {
+        InvoiceModel model = baseModel()
+                .documentTitle(null)
+                .issuerName(null)
+                .bookingReference(null)
+                .customerEmail("no")
+                .platformFee(BigDecimal.ZERO)
+                .lineItems(List.of())
+                .build();
+
+        assertEquivalent("invoice-minimal", model);
+    }
+
+    /** @return the text of the PDF rendered through the template */
+    private String assertEquivalent(String goldenName, InvoiceModel model) throws Exception {
+        Document templateDocument = parse(templateEngine.process("invoice", model.toContext()));
+        Document fastDocument = fastRenderer.render(model);
+        String viaTemplate = normalize(templateDocument);
+        String viaFastPath = normalize(fastDocument);
+
+        assertEquals(viaTemplate, viaFastPath, "Fast path drifted from invoice.html");
+        String templatePdfText = pdfText(templateDocument);
+        assertEquals(templatePdfText, pdfText(fastDocument), "Fast path PDF text differs from invoice.html");
+
+        Path golden = GOLDEN_DIR.resolve(goldenName + ".txt");
+        if (Boolean.getBoolean("golden.update")) {
+            Files.createDirectories(GOLDEN_DIR);
+            Files.writeString(golden, viaTemplate, StandardCharsets.UTF_8);
+        }
+        assertEquals(Files.readString(golden, StandardCharsets.UTF_8), viaTemplate,
+                "invoice.html output changed; rerun with -Dgolden.update=true if intended");
+        return templatePdfText;
+    }
+
+    private static String pdfText(Document document) throws Exception {
+        try (PDDocument pdf = PDDocument.load(XhtmlPdfConverter.toPdf(document))) {
+            return new PDFTextStripper().getText(pdf);
+        }
+    }
+
+    private static InvoiceModel.InvoiceModelBuilder baseModel() {
+        return InvoiceModel.builder()
+                .invoiceNumber("INV-20260301-ABCD1234")
+                .invoiceDate(LocalDate.of(2026, 3, 1))
+                .bookingId(4242L)
+                .bookingReference("REF-4242")
+                .documentType("INV")
+                .documentTitle("Tax Invoice")
+                .customerName("Asha <Rao>")
+                .issuerName("HyperInvoice")
+                .serviceName("Turf Booking")
+                .slotSubtotal(new BigDecimal("1000.00"))
+                .amount(new BigDecimal("1000.00"))
+                .discount(BigDecimal.ZERO)
+                .netAssessable(new BigDecimal("847.46"))
+                .gstAmount(new BigDecimal("152.54"))
+                .invoiceTotal(new BigDecimal("1000.00"))
+                .invoiceTotalInWords("One Thousand Rupees Only");
+    }
+
+    /** Parsed the way {@code PdfGeneratorService} parses the rendered template. */
+    private static Document parse(String html) throws Exception {
+        return XhtmlPdfConverter.parse(new InputSource(new StringReader(html)));
+    }
+
+    /**
+     * One line per element or text node; ignores comments, xmlns and attribute order. Whitespace runs
+     * collapse to one space. Whitespace-only text is kept when it touches an inline element (the
+     * renderer draws it) and dropped between block elements; other text loses whitespace on a side
+     * that faces a block element or the parent's edge.
+     */
+    private static String normalize(Document document) {
+        StringBuilder out = new StringBuilder();
+        append(document.getDocumentElement(), 0, out);
+        return out.toString();
+    }
+
+    private static void append(Node node, int depth, StringBuilder out) {
+        if (node.getNodeType() == Node.TEXT_NODE) {
+            String text = node.getNodeValue().replaceAll("\\s+", " ");
+            boolean inlineBefore = flowsInline(sibling(node, false));
+            boolean inlineAfter = flowsInline(sibling(node, true));
+            if (text.isBlank()) {
+                text = inlineBefore || inlineAfter ? " " : "";
+            } else {
+                text = inlineBefore ? text : text.stripLeading();
+                text = inlineAfter ? text : text.stripTrailing();
+            }
+            if (!text.isEmpty()) {
+                out.append("  ".repeat(depth)).append('"').append(text).append("\"\n");
+            }
+            return;
+        }
+        if (node.getNodeType() != Node.ELEMENT_NODE) {
+            return;
+        }
+        Element element = (Element) node;
+        Map<String, String> attributes = new TreeMap<>();
+        NamedNodeMap attributeNodes = element.getAttributes();
+        for (int i = 0; i < attributeNodes.getLength(); i++) {
+            Node attribute = attributeNodes.item(i);
+            if (!attribute.getNodeName().startsWith("xmlns")) {
+                attributes.put(attribute.getNodeName(), attribute.getNodeValue());
+            }
+        }
+        out.append("  ".repeat(depth)).append('<').append(element.getTagName());
+        attributes.forEach((name, value) -> out.append(' ').append(name).append("=\"").append(value).append('"'));
+        out.append(">\n");
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            append(child, depth + 1, out);
+        }
+    }
+
+    private static boolean flowsInline(Node node) {
+        return node != null && (node.getNodeType() == Node.TEXT_NODE
+                || node.getNodeType() == Node.ELEMENT_NODE && INLINE_ELEMENTS.contains(node.getNodeName()));
+    }
+
+    /** Nearest sibling that is neither a comment nor whitespace-only text. */
+    private static Node sibling(Node node, boolean next) {
+        Node sibling = next ? node.getNextSibling() : node.getPreviousSibling();
+        while (sibling != null && (sibling.getNodeType() == Node.COMMENT_NODE
+                || sibling.getNodeType() == Node.TEXT_NODE && sibling.getNodeValue().isBlank())) {
+            sibling = next ? sibling.getNextSibling() : sibling.getPreviousSibling();
+        }
+        return sibling;
+    }
+}
@@ -0,0 +1,139 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.client.BookingApiClient;
+import com.hyper.invoicebackend.config.InvoiceTemplateProperties;
+import com.hyper.invoicebackend.dto.BookingResponse;
+import com.hyper.invoicebackend.dto.InvoiceExportRequestDTO;
+import com.hyper.invoicebackend.exception.InvalidRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class InvoiceExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 31);
+
+    private final InvoiceService invoiceService = mock(InvoiceService.class);
+    private final BookingApiClient bookingApiClient = mock(BookingApiClient.class);
+    private final InvoiceExportService exportService = new InvoiceExportService(invoiceService, bookingApiClient,
+            new InvoiceTemplateRegistry(new SpringTemplateEngine(), new InvoiceTemplateProperties()), 2, 3);
+
+    @AfterEach
+    void tearDown() {
+        exportService.shutdown();
+    }
+
+    @Test
+    void planDeduplicatesBookingIdsKeepingOrder() {
+        InvoiceExportService.ExportPlan plan = exportService.plan(byIds(3L, 1L, 3L, 2L, 1L));
+
+        assertEquals(List.of(3L, 1L, 2L), plan.bookingIds());
+        verifyNoInteractions(bookingApiClient);
+    }
+
+    @Test
+    void planRejectsUnknownTemplateBeforeFetchingAnything() {
+        InvoiceExportRequestDTO request = byRange();
+        request.setTemplate("no-such-template");
+
+        InvalidRequestException e = assertThrows(InvalidRequestException.class, () -> exportService.plan(request));
+        assertTrue(e.getMessage().contains("invoice"), "lists valid keys: " + e.getMessage());
+        verifyNoInteractions(bookingApiClient);
+    }
+
+    @Test
+    void planEnforcesMaxBookings() {
+        assertThrows(InvalidRequestException.class, () -> exportService.plan(byIds(1L, 2L, 3L, 4L)));
+
+        // the search reads at most one booking past the limit
+        when(bookingApiClient.findBookings(FROM, TO, null, 4))
+                .thenReturn(LongStream.rangeClosed(1, 4).mapToObj(InvoiceExportServiceTest::booking).toList());
+        assertThrows(InvalidRequestException.class, () -> exportService.plan(byRange()));
+
+        when(bookingApiClient.findBookings(FROM, TO, null, 4))
+                .thenReturn(LongStream.rangeClosed(1, 3).mapToObj(InvoiceExportServiceTest::booking).toList());
+        assertEquals(3, exportService.plan(byRange()).bookingIds().size());
+        verify(bookingApiClient, times(2)).findBookings(FROM, TO, null, 4);
+    }
+
+    @Test
+    void zipHoldsStoredCopiesNamedByBookingAndListsFailures() throws Exception {
+        when(bookingApiClient.getBooking(anyLong())).thenAnswer(call -> booking(call.getArgument(0)));
+        when(invoiceService.renderCopy(any(), isNull())).thenAnswer(call -> {
+            BookingResponse booking = call.getArgument(0);
+            if (booking.getId() == 2L) {
+                throw new IllegalStateException("renderer exploded");
+            }
+            return new InvoiceService.RenderedInvoice(booking.getId(), InvoiceService.COPY_INVOICE_NUMBER, "invoice",
+                    ("%PDF-" + booking.getId()).getBytes(StandardCharsets.US_ASCII));
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeZip(exportService.plan(byIds(1L, 2L, 3L)), out);
+
+        Map<String, byte[]> entries = new TreeMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                byte[] content = zip.readAllBytes();
+                assertEquals(ZipEntry.STORED, entry.getMethod(), entry.getName());
+                CRC32 crc = new CRC32();
+                crc.update(content);
+                assertEquals(crc.getValue(), entry.getCrc(), entry.getName());
+                entries.put(entry.getName(), content);
+            }
+        }
+
+        assertEquals(List.of("booking-1-REF_1-copy.pdf", "booking-3-REF_3-copy.pdf", "errors.txt"),
+                List.copyOf(entries.keySet()));
+        assertArrayEquals("%PDF-3".getBytes(StandardCharsets.US_ASCII), entries.get("booking-3-REF_3-copy.pdf"));
+        assertEquals("2: renderer exploded", new String(entries.get("errors.txt"), StandardCharsets.UTF_8));
+        verify(invoiceService).renderCopy(eq(booking(1L)), isNull());
+    }
+
+    private static InvoiceExportRequestDTO byIds(Long... bookingIds) {
+        InvoiceExportRequestDTO request = new InvoiceExportRequestDTO();
+        request.setBookingIds(List.of(bookingIds));
+        return request;
+    }
+
+    private static InvoiceExportRequestDTO byRange() {
+        InvoiceExportRequestDTO request = new InvoiceExportRequestDTO();
+        request.setFrom(FROM);
+        request.setTo(TO);
+        return request;
+    }
+
+    private static BookingResponse booking(long id) {
+        BookingResponse booking = new BookingResponse();
+        booking.setId(id);
+        booking.setReference("REF/" + id);
+        return booking;
+    }
+}
@@ -0,0 +1,68 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.config.InvoiceTemplateProperties;
+import com.hyper.invoicebackend.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvoiceTemplateRegistryTest {
+
+    @Test
+    void resolvesDefinitionsFillingUnsetFieldsFromTheStandardInvoice() {
+        InvoiceTemplateProperties properties = new InvoiceTemplateProperties();
+        properties.getDefinitions().put("receipt", definition("receipt", "Payment Receipt", "RCT", false));
+        properties.getDefinitions().put("statement", definition(null, null, null, true));
+        InvoiceTemplateRegistry registry = registry(properties);
+
+        assertEquals(new InvoiceTemplateRegistry.InvoiceTemplate("receipt", "receipt", "Payment Receipt", "RCT", false),
+                registry.resolve("receipt"));
+        assertEquals(new InvoiceTemplateRegistry.InvoiceTemplate("statement", "statement", "Tax Invoice", "INV", true),
+                registry.resolve("statement"));
+        assertEquals(Set.of("invoice", "receipt", "statement"), registry.keys(), "'invoice' is always registered");
+    }
+
+    @Test
+    void blankKeyResolvesToConfiguredDefault() {
+        InvoiceTemplateProperties properties = new InvoiceTemplateProperties();
+        properties.getDefinitions().put("receipt", definition("receipt", "Payment Receipt", "RCT", false));
+        properties.setDefaultTemplate("receipt");
+        InvoiceTemplateRegistry registry = registry(properties);
+
+        assertEquals("receipt", registry.resolve(null).key());
+        assertEquals("receipt", registry.resolve(" ").key());
+
+        properties.setDefaultTemplate("missing");
+        assertEquals("invoice", registry(properties).resolve(null).key(), "unregistered default falls back to 'invoice'");
+    }
+
+    @Test
+    void unknownKeyIsRejectedListingValidKeys() {
+        InvoiceTemplateProperties properties = new InvoiceTemplateProperties();
+        properties.getDefinitions().put("receipt", definition("receipt", "Payment Receipt", "RCT", false));
+        InvoiceTemplateRegistry registry = registry(properties);
+
+        InvalidRequestException e = assertThrows(InvalidRequestException.class, () -> registry.resolve("credit-note"));
+
+        assertTrue(e.getMessage().endsWith("valid templates: invoice, receipt"), e.getMessage());
+    }
+
+    private static InvoiceTemplateRegistry registry(InvoiceTemplateProperties properties) {
+        return new InvoiceTemplateRegistry(new SpringTemplateEngine(), properties);
+    }
+
+    private static InvoiceTemplateProperties.Definition definition(String templateName, String title,
+                                                                   String documentType, boolean statement) {
+        InvoiceTemplateProperties.Definition definition = new InvoiceTemplateProperties.Definition();
+        definition.setTemplateName(templateName);
+        definition.setTitle(title);
+        definition.setDocumentType(documentType);
+        definition.setStatement(statement);
+        return definition;
+    }
+}
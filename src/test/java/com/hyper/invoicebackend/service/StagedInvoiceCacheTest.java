@@ -0,0 +1,62 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.config.PregenerationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StagedInvoiceCacheTest {
+
+    private final StagedInvoiceCache cache = new StagedInvoiceCache(new PregenerationProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void stagedInvoiceIsServedOnceAndOnlyForItsTemplate() {
+        CompletableFuture<InvoiceService.RenderedInvoice> slot = cache.reserve(1L, null).orElseThrow();
+        assertTrue(cache.reserve(1L, null).isEmpty(), "second reservation for the same booking");
+        slot.complete(rendered(1L, "invoice"));
+
+        assertTrue(cache.take(1L, "receipt").isEmpty(), "different template must miss");
+        assertEquals("INV-1", cache.take(1L, null).orElseThrow().invoiceNumber());
+        assertTrue(cache.take(1L, null).isEmpty(), "staged invoice is handed out once");
+    }
+
+    @Test
+    void defaultTemplateStagingMatchesRequestNamingTheResolvedTemplate() {
+        cache.reserve(4L, null).orElseThrow().complete(rendered(4L, "invoice"));
+        assertEquals("INV-4", cache.take(4L, "invoice").orElseThrow().invoiceNumber());
+
+        cache.reserve(5L, "receipt").orElseThrow().complete(rendered(5L, "receipt"));
+        assertTrue(cache.take(5L, null).isEmpty(), "explicit staging is not assumed to be the default");
+    }
+
+    private static InvoiceService.RenderedInvoice rendered(Long bookingId, String templateKey) {
+        return new InvoiceService.RenderedInvoice(bookingId, "INV-" + bookingId, templateKey, new byte[]{1});
+    }
+
+    @Test
+    void failedOrLateStagingIsNotServed() {
+        cache.reserve(2L, null).orElseThrow().completeExceptionally(new RuntimeException("upload failed"));
+        assertTrue(cache.reserve(2L, null).isPresent(), "a failed staging can be retried");
+
+        assertTrue(cache.take(3L, null).isEmpty());
+        assertTrue(cache.reserve(3L, null).isEmpty(), "no staging after the booking was already requested");
+    }
+
+    @Test
+    void discardDropsStagedInvoiceAndBlocksLateStaging() {
+        cache.reserve(6L, null).orElseThrow().complete(rendered(6L, "invoice"));
+        CompletableFuture<InvoiceService.RenderedInvoice> inFlight = cache.reserve(7L, null).orElseThrow();
+
+        cache.discard(6L);
+        cache.discard(7L);
+        inFlight.complete(rendered(7L, "invoice"));
+
+        assertTrue(cache.take(6L, null).isEmpty(), "discarded invoice must not be served");
+        assertTrue(cache.take(7L, null).isEmpty(), "staging finished after discard must not be served");
+        assertTrue(cache.reserve(6L, null).isEmpty(), "no re-staging right after a discard");
+    }
+}
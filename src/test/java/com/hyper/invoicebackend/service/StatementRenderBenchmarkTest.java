@@ -0,0 +1,149 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.client.BookingApiClient;
+import com.hyper.invoicebackend.config.InvoiceTemplateProperties;
+import com.hyper.invoicebackend.config.PregenerationProperties;
+import com.hyper.invoicebackend.config.RenderWorkerProperties;
+import com.hyper.invoicebackend.config.VenueBrandingProperties;
+import com.hyper.invoicebackend.dto.BookingResponse;
+import com.hyper.invoicebackend.render.RenderWorkerPool;
+import com.hyper.invoicebackend.util.AmountToWordsConverter;
+import com.hyper.invoicebackend.util.InvoiceNumberGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Renders statements of 10, 1,000 and 10,000 child bookings through {@link InvoiceService} (booking →
+ * statement line items → model → template → PDF) and checks that time, allocation and peak heap per
+ * line stay roughly flat (i.e. cost grows linearly).
+ * Opt-in: {@code mvn test -Dbenchmark=true -Dtest=StatementRenderBenchmarkTest}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StatementRenderBenchmarkTest {
+
+    private static final int[] SIZES = {10, 1_000, 10_000};
+
+    /** Allowed growth of per-line cost between 1,000 and 10,000 lines before we call it non-linear. */
+    private static final double MAX_PER_LINE_GROWTH = 2.0;
+
+    private static InvoiceService invoiceService;
+
+    @BeforeAll
+    static void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+
+        InvoiceTemplateProperties templates = new InvoiceTemplateProperties();
+        InvoiceTemplateProperties.Definition statement = new InvoiceTemplateProperties.Definition();
+        statement.setTitle("Statement of Account");
+        statement.setDocumentType("STM");
+        statement.setStatement(true);
+        templates.getDefinitions().put("statement", statement);
+        InvoiceTemplateRegistry templateRegistry = new InvoiceTemplateRegistry(engine, templates);
+
+        // Copies are rendered without an invoice number, upload or booking fetch, so those stay unused mocks
+        invoiceService = new InvoiceService(
+                new PdfGeneratorService(engine, new RenderWorkerPool(new RenderWorkerProperties(), new SimpleMeterRegistry())),
+                mock(CloudinaryService.class),
+                mock(InvoiceNumberGenerator.class),
+                new AmountToWordsConverter(),
+                mock(BookingApiClient.class),
+                templateRegistry,
+                new VenueBrandingRegistry(new VenueBrandingProperties(), templateRegistry),
+                new FastInvoiceRenderer(true),
+                new StagedInvoiceCache(new PregenerationProperties(), new SimpleMeterRegistry()));
+
+        // Warm up class loading, fonts and JIT before measuring
+        for (int i = 0; i < 3; i++) {
+            invoiceService.renderCopy(statementBooking(100), "statement");
+        }
+    }
+
+    @Test
+    void renderCostGrowsLinearlyWithLineItems() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+
+        double[] nanosPerLine = new double[SIZES.length];
+        double[] bytesPerLine = new double[SIZES.length];
+        double[] peakPerLine = new double[SIZES.length];
+        for (int s = 0; s < SIZES.length; s++) {
+            int lines = SIZES[s];
+            BookingResponse booking = statementBooking(lines);
+
+            System.gc();
+            long heapBefore = heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            byte[] pdf = invoiceService.renderCopy(booking, "statement").pdfBytes();
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            // per-pool peaks may occur at different moments, so their sum is an upper bound
+            long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - heapBefore;
+
+            nanosPerLine[s] = (double) elapsed / lines;
+            bytesPerLine[s] = (double) allocated / lines;
+            peakPerLine[s] = (double) peakHeap / lines;
+            log.info("[StatementRenderBenchmark] lines={} | time={} ms ({} us/line) | allocated={} MB ({} KB/line) | peak heap={} MB ({} KB/line) | pdf={} KB",
+                    lines, elapsed / 1_000_000, String.format("%.1f", nanosPerLine[s] / 1_000),
+                    allocated / (1024 * 1024), String.format("%.1f", bytesPerLine[s] / 1024),
+                    peakHeap / (1024 * 1024), String.format("%.1f", peakPerLine[s] / 1024), pdf.length / 1024);
+        }
+
+        // Compare the two large sizes; at 10 lines fixed per-document overhead dominates.
+        assertTrue(nanosPerLine[2] <= nanosPerLine[1] * MAX_PER_LINE_GROWTH,
+                "Render time per line grew super-linearly: " + nanosPerLine[1] + " -> " + nanosPerLine[2] + " ns");
+        assertTrue(bytesPerLine[2] <= bytesPerLine[1] * MAX_PER_LINE_GROWTH,
+                "Allocation per line grew super-linearly: " + bytesPerLine[1] + " -> " + bytesPerLine[2] + " bytes");
+        assertTrue(peakPerLine[2] <= peakPerLine[1] * MAX_PER_LINE_GROWTH,
+                "Peak heap per line grew super-linearly: " + peakPerLine[1] + " -> " + peakPerLine[2] + " bytes");
+    }
+
+    private static BookingResponse statementBooking(int lines) {
+        BookingResponse.UserInfo user = new BookingResponse.UserInfo();
+        user.setName("Benchmark Customer");
+        BookingResponse.AmountBreakdown amounts = new BookingResponse.AmountBreakdown();
+        BigDecimal subtotal = new BigDecimal("500.00").multiply(BigDecimal.valueOf(lines));
+        amounts.setSlotSubtotal(subtotal);
+        amounts.setTotalAmount(subtotal);
+
+        BookingResponse booking = new BookingResponse();
+        booking.setId(1L);
+        booking.setReference("BENCH-" + lines);
+        booking.setServiceName("Turf Booking");
+        booking.setResourceName("Court 1");
+        booking.setBookingDate(LocalDate.of(2026, 3, 31));
+        booking.setUser(user);
+        booking.setAmountBreakdown(amounts);
+        booking.setChildBookings(IntStream.range(0, lines).mapToObj(i -> "SLOT-" + i).toList());
+        return booking;
+    }
+}
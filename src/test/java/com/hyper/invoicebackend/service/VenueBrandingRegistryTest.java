@@ -0,0 +1,84 @@
+package com.hyper.invoicebackend.service;
+
+import com.hyper.invoicebackend.config.InvoiceTemplateProperties;
+import com.hyper.invoicebackend.config.VenueBrandingProperties;
+import com.hyper.invoicebackend.dto.BookingResponse;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VenueBrandingRegistryTest {
+
+    private final InvoiceTemplateRegistry templateRegistry =
+            new InvoiceTemplateRegistry(new SpringTemplateEngine(), new InvoiceTemplateProperties());
+
+    @Test
+    void unconfiguredVenueGetsDefaultsAndItsResourceName() {
+        VenueBrandingProperties properties = new VenueBrandingProperties();
+        properties.setSacCode("998552");
+        VenueBrandingRegistry registry = new VenueBrandingRegistry(properties, templateRegistry);
+
+        VenueBrandingRegistry.VenueBranding branding = registry.resolve(booking(7L, "Court 7"));
+
+        assertEquals("HyperInvoice", branding.issuerName());
+        assertEquals("Court 7", branding.venueName());
+        assertEquals("998552", branding.sacCode());
+        assertNull(branding.gstin());
+        assertNull(branding.template());
+        assertEquals("Court 9", registry.resolve(booking(9L, "Court 9")).venueName(), "defaults carry no booking data");
+        assertEquals("Walk-in", registry.resolve(booking(null, "Walk-in")).venueName());
+    }
+
+    @Test
+    void venueOverridesMergeOverDefaults() {
+        VenueBrandingProperties properties = new VenueBrandingProperties();
+        properties.setSacCode("998552");
+        VenueBrandingProperties.Venue venue = new VenueBrandingProperties.Venue();
+        venue.setIssuerName("Green Turf Pvt Ltd");
+        venue.setGstin("29ABCDE1234F1Z5");
+        venue.setState("Karnataka");
+        venue.setTemplate("invoice");
+        properties.getVenues().put(42L, venue);
+        VenueBrandingRegistry registry = new VenueBrandingRegistry(properties, templateRegistry);
+
+        VenueBrandingRegistry.VenueBranding branding = registry.resolve(booking(42L, "Turf A"));
+
+        assertEquals("Green Turf Pvt Ltd", branding.issuerName());
+        assertEquals("29ABCDE1234F1Z5", branding.gstin());
+        assertEquals("Karnataka", branding.placeOfSupply(), "place of supply defaults to the venue's state");
+        assertEquals("998552", branding.sacCode());
+        assertEquals("invoice", branding.template());
+        assertEquals("Turf A", branding.venueName());
+
+        venue.setVenueName("Green Turf Arena");
+        VenueBrandingRegistry named = new VenueBrandingRegistry(properties, templateRegistry);
+        VenueBrandingRegistry.VenueBranding first = named.resolve(booking(42L, "Turf A"));
+        assertEquals("Green Turf Arena", first.venueName(), "configured venue name wins over the resource name");
+        assertSame(first, named.resolve(booking(42L, "Turf B")), "merged branding is cached per venue");
+    }
+
+    @Test
+    void unknownVenueTemplateFailsAtStartup() {
+        VenueBrandingProperties properties = new VenueBrandingProperties();
+        VenueBrandingProperties.Venue venue = new VenueBrandingProperties.Venue();
+        venue.setTemplate("gst-invoice");
+        properties.getVenues().put(42L, venue);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new VenueBrandingRegistry(properties, templateRegistry));
+
+        assertTrue(e.getMessage().startsWith("invoice.branding.venues.42.template 'gst-invoice'"), e.getMessage());
+    }
+
+    private static BookingResponse booking(Long resourceId, String resourceName) {
+        BookingResponse booking = new BookingResponse();
+        booking.setResourceId(resourceId);
+        booking.setResourceName(resourceName);
+        return booking;
+    }
+}